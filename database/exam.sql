@@ -47,7 +47,7 @@ CREATE TABLE IF NOT EXISTS exam (
     
     INDEX idx_subject (subject),
     INDEX idx_exam_date (exam_date),
-    INDEX idx_room_date (room, exam_date),
+    INDEX idx_exam_slot (room, exam_date, start_time, end_time),
     INDEX idx_status (status),
     INDEX idx_created_by (created_by),
     
@@ -0,0 +1,40 @@
+-- V2：按实际查询条件调整考试表和座位表索引
+-- 适用于两类已有数据库：
+--   1. 使用 exam.sql 初始化的数据库（已有 uk_exam_seat，索引为 idx_room_date）
+--   2. 由 spring.jpa.hibernate.ddl-auto=update 自动建表的数据库（没有任何索引和唯一约束）
+-- 脚本可重复执行，执行后两类数据库的索引与实体类中的 @Table 定义一致
+-- 版本：MySQL 8.0+
+
+USE exam;
+
+-- 1. 考试表：按 试室 + 日期 + 开始时间 + 结束时间 查询考试的覆盖索引
+SET @index_exists := (SELECT COUNT(*) FROM information_schema.statistics
+                      WHERE table_schema = DATABASE() AND table_name = 'exam' AND index_name = 'idx_exam_slot');
+SET @ddl := IF(@index_exists = 0,
+               'ALTER TABLE exam ADD INDEX idx_exam_slot (room, exam_date, start_time, end_time)',
+               'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- idx_room_date 是 idx_exam_slot 的前缀，已不再需要
+SET @index_exists := (SELECT COUNT(*) FROM information_schema.statistics
+                      WHERE table_schema = DATABASE() AND table_name = 'exam' AND index_name = 'idx_room_date');
+SET @ddl := IF(@index_exists > 0, 'ALTER TABLE exam DROP INDEX idx_room_date', 'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 2. 座位表：同一考试中座位号唯一
+-- 添加唯一约束前先清理重复座位，保留每个座位号最早写入的一条记录
+DELETE s1 FROM seat s1
+JOIN seat s2 ON s1.exam_id = s2.exam_id AND s1.seat_number = s2.seat_number AND s1.id > s2.id;
+
+SET @index_exists := (SELECT COUNT(*) FROM information_schema.statistics
+                      WHERE table_schema = DATABASE() AND table_name = 'seat' AND index_name = 'uk_exam_seat');
+SET @ddl := IF(@index_exists = 0,
+               'ALTER TABLE seat ADD CONSTRAINT uk_exam_seat UNIQUE (exam_id, seat_number)',
+               'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
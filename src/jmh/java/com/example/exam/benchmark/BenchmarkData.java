@@ -0,0 +1,51 @@
+package com.example.exam.benchmark;
+
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.model.Exam;
+import com.example.exam.utils.ExcelUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试数据生成
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Exam exam() {
+        Exam exam = new Exam();
+        exam.setId(1L);
+        exam.setRoom("A101");
+        exam.setSubject("高等数学");
+        exam.setExamType("闭卷");
+        exam.setStartEndTime("08:40 ~ 10:40");
+        exam.setStartTime(LocalTime.of(8, 40));
+        exam.setEndTime(LocalTime.of(10, 40));
+        exam.setExamDate(LocalDate.of(2025, 1, 6));
+        return exam;
+    }
+
+    // 座位号从1开始连续编号，每10个座位有1个空座
+    static List<SeatRowDTO> seats(int rows) {
+        List<SeatRowDTO> seats = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            boolean empty = i % 10 == 0;
+            seats.add(new SeatRowDTO(i, empty ? null : "学生" + i, empty));
+        }
+        return seats;
+    }
+
+    // 与导出格式相同的座位表工作簿
+    static byte[] workbook(int rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelUtils.writeSeatsToExcel(seats(rows), exam(), out);
+        return out.toByteArray();
+    }
+}
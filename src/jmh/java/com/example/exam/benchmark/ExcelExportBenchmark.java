@@ -0,0 +1,50 @@
+package com.example.exam.benchmark;
+
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.model.Exam;
+import com.example.exam.utils.ExcelUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Excel座位导出：与导出接口相同，writeSeatsToExcel 以SXSSF流式写入输出流
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExcelExportBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int rows;
+
+    private List<SeatRowDTO> seats;
+    private Exam exam;
+
+    @Setup
+    public void setUp() {
+        seats = BenchmarkData.seats(rows);
+        exam = BenchmarkData.exam();
+    }
+
+    @Benchmark
+    public void writeSeatsToExcel() throws IOException {
+        ExcelUtils.writeSeatsToExcel(seats, exam, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.exam.benchmark;
+
+import com.example.exam.utils.ExcelUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Excel座位导入：与导入接口相同，上传文件落盘后以SAX方式逐行解析，每行交给consumer处理，不收集成列表
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExcelImportBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int rows;
+
+    private MockMultipartFile file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = new MockMultipartFile("file", "seats.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", BenchmarkData.workbook(rows));
+    }
+
+    @Benchmark
+    public int streamSeatsFromExcel(Blackhole blackhole) throws IOException {
+        File tempFile = ExcelUtils.spoolToTempFile(file);
+        try {
+            return ExcelUtils.streamSeatsFromExcel(tempFile, blackhole::consume);
+        } finally {
+            tempFile.delete();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.exam.benchmark;
+
+import com.example.exam.utils.SeatAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个试室自动排座，学生来自12个班级、2个科目，同班间距2且相邻科目交替
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatAllocatorBenchmark {
+
+    @Param({"100", "10000"})
+    public int students;
+
+    private int rows;
+    private int cols;
+    private int[] studentClass;
+    private int[] studentSubject;
+
+    @Setup
+    public void setUp() {
+        cols = (int) Math.ceil(Math.sqrt(students * 1.1));
+        rows = (int) Math.ceil(students * 1.1 / cols);
+        studentClass = new int[students];
+        studentSubject = new int[students];
+        for (int i = 0; i < students; i++) {
+            studentClass[i] = i % 12;
+            studentSubject[i] = studentClass[i] % 2;
+        }
+    }
+
+    @Benchmark
+    public int[] allocate() {
+        return SeatAllocator.allocate(rows, cols, null, 0, studentClass, studentSubject, 2, true);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.exam.benchmark;
+
+import com.example.exam.ExamApplication;
+import com.example.exam.model.Exam;
+import com.example.exam.model.Seat;
+import com.example.exam.respository.ExamRepository;
+import com.example.exam.respository.SeatJdbcRepository;
+import com.example.exam.respository.SeatRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 座位批量写入：JdbcTemplate批处理（SeatJdbcRepository.batchInsert）与原来的 seatRepository.saveAll 对比
+ * 每次调用写入5000个座位到内嵌H2（MySQL兼容模式），结果单位为行/秒。
+ * Seat使用IDENTITY主键，saveAll为每个座位单独执行一条INSERT
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatInsertBenchmark {
+
+    private static final int ROWS = 5000;
+
+    private ConfigurableApplicationContext context;
+    private SeatJdbcRepository seatJdbcRepository;
+    private SeatRepository seatRepository;
+    private JdbcTemplate jdbcTemplate;
+    private Exam exam;
+    private List<Seat> seats;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(ExamApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:seat-insert;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        seatJdbcRepository = context.getBean(SeatJdbcRepository.class);
+        seatRepository = context.getBean(SeatRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Exam newExam = BenchmarkData.exam();
+        newExam.setId(null);
+        exam = context.getBean(ExamRepository.class).save(newExam);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    // 每次调用前生成新的座位实体，saveAll会给实体回填主键，不能重复使用
+    @Setup(Level.Invocation)
+    public void prepareSeats() {
+        seats = new ArrayList<>(ROWS);
+        for (int i = 1; i <= ROWS; i++) {
+            Seat seat = new Seat();
+            seat.setSeatNumber(i);
+            seat.setStudentName("学生" + i);
+            seat.setAvailable(false);
+            seat.setExam(exam);
+            seats.add(seat);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteSeats() {
+        jdbcTemplate.update("DELETE FROM seat WHERE exam_id = ?", exam.getId());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int batchInsert() {
+        return seatJdbcRepository.batchInsert(exam.getId(), seats);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int saveAll() {
+        return seatRepository.saveAll(seats).size();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.exam.benchmark;
+
+import com.example.exam.DTO.SeatConflictReport;
+import com.example.exam.Service.SeatService;
+import com.example.exam.utils.SeatNumberSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 座位号重复校验：批次内重复和与已有座位重复，不含查询已有座位号的数据库访问
+ * saveSeats 对应 /admin/save（SeatService.validateSeatNumbers），
+ * uploadSeatChart 对应 /admin/upload-seat-chart 的流式导入：逐行登记座位号，结束时生成冲突报告。
+ * 已有座位为奇数号，待写入批次为偶数号并混入1%的重复座位号
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatValidationBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int rows;
+
+    private List<Integer> existing;
+    private List<Integer> batch;
+
+    @Setup
+    public void setUp() {
+        existing = new ArrayList<>(rows);
+        batch = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            existing.add(2 * i + 1);
+            batch.add(i % 100 == 99 ? 2 * i - 1 : 2 * i + 2);
+        }
+    }
+
+    @Benchmark
+    public SeatConflictReport saveSeats() {
+        return SeatService.findSeatConflicts(existing, batch);
+    }
+
+    @Benchmark
+    public SeatConflictReport uploadSeatChart() {
+        SeatNumberSet taken = new SeatNumberSet();
+        for (Integer number : existing) {
+            taken.add(number);
+        }
+        boolean rejected = false;
+        for (Integer number : batch) {
+            rejected |= !taken.add(number);
+        }
+        return rejected ? SeatService.findSeatConflicts(existing, batch) : null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.exam.benchmark;
+
+import com.example.exam.utils.TimeRangeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /exam/seats 的时间范围解析，splitAndParse 为原先在控制器中的写法，作为对照
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeRangeParseBenchmark {
+
+    public String timeRange = "08:40 ~ 10:40";
+
+    @Benchmark
+    public LocalTime[] timeRangeUtils() {
+        return TimeRangeUtils.parse(timeRange);
+    }
+
+    @Benchmark
+    public LocalTime[] splitAndParse() {
+        String[] times = timeRange.split(" ~ ");
+        return new LocalTime[]{LocalTime.parse(times[0].trim()), LocalTime.parse(times[1].trim())};
+    }
+}
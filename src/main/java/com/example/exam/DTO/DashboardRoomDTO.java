@@ -0,0 +1,74 @@
+package com.example.exam.DTO;
+
+import java.time.LocalDate;
+
+/**
+ * 控制面板中一个试室一天的统计
+ */
+public class DashboardRoomDTO {
+    private LocalDate examDate;
+    private String room;
+    private long exams;
+    private long seats;
+    private long occupiedSeats;
+    private long freeSeats;
+    private long importsInProgress;
+
+    // Getters and Setters
+
+    public LocalDate getExamDate() {
+        return examDate;
+    }
+
+    public void setExamDate(LocalDate examDate) {
+        this.examDate = examDate;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public long getExams() {
+        return exams;
+    }
+
+    public void setExams(long exams) {
+        this.exams = exams;
+    }
+
+    public long getSeats() {
+        return seats;
+    }
+
+    public void setSeats(long seats) {
+        this.seats = seats;
+    }
+
+    public long getOccupiedSeats() {
+        return occupiedSeats;
+    }
+
+    public void setOccupiedSeats(long occupiedSeats) {
+        this.occupiedSeats = occupiedSeats;
+    }
+
+    public long getFreeSeats() {
+        return freeSeats;
+    }
+
+    public void setFreeSeats(long freeSeats) {
+        this.freeSeats = freeSeats;
+    }
+
+    public long getImportsInProgress() {
+        return importsInProgress;
+    }
+
+    public void setImportsInProgress(long importsInProgress) {
+        this.importsInProgress = importsInProgress;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.exam.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 已冻结考试的座位表快照信息
+ */
+public class FrozenSeatChartDTO {
+    private Long examId;
+    private String room;
+    private String subject;
+    private LocalDate examDate;
+    private String startEndTime;
+    private LocalDateTime frozenAt;
+    private int htmlBytes;
+    private int htmlGzipBytes;
+    private int jsonBytes;
+    private int jsonGzipBytes;
+
+    // Getters and Setters
+
+    public Long getExamId() {
+        return examId;
+    }
+
+    public void setExamId(Long examId) {
+        this.examId = examId;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public LocalDate getExamDate() {
+        return examDate;
+    }
+
+    public void setExamDate(LocalDate examDate) {
+        this.examDate = examDate;
+    }
+
+    public String getStartEndTime() {
+        return startEndTime;
+    }
+
+    public void setStartEndTime(String startEndTime) {
+        this.startEndTime = startEndTime;
+    }
+
+    public LocalDateTime getFrozenAt() {
+        return frozenAt;
+    }
+
+    public void setFrozenAt(LocalDateTime frozenAt) {
+        this.frozenAt = frozenAt;
+    }
+
+    public int getHtmlBytes() {
+        return htmlBytes;
+    }
+
+    public void setHtmlBytes(int htmlBytes) {
+        this.htmlBytes = htmlBytes;
+    }
+
+    public int getHtmlGzipBytes() {
+        return htmlGzipBytes;
+    }
+
+    public void setHtmlGzipBytes(int htmlGzipBytes) {
+        this.htmlGzipBytes = htmlGzipBytes;
+    }
+
+    public int getJsonBytes() {
+        return jsonBytes;
+    }
+
+    public void setJsonBytes(int jsonBytes) {
+        this.jsonBytes = jsonBytes;
+    }
+
+    public int getJsonGzipBytes() {
+        return jsonGzipBytes;
+    }
+
+    public void setJsonGzipBytes(int jsonGzipBytes) {
+        this.jsonGzipBytes = jsonGzipBytes;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.exam.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 自动排座请求：试室布局、约束条件和学生名单
+ */
+public class SeatAllocationRequestDTO {
+    private int rows;
+    private int cols;
+    // 不可用的座位号
+    private List<Integer> blockedSeats = new ArrayList<>();
+    // 最多使用的座位数，0表示不限制
+    private int maxSeats;
+    // 同班学生之间的最小距离（按行列计），1表示不限制，2表示相邻和斜对角都不能同班
+    private int minClassDistance = 2;
+    // 前后左右相邻座位是否必须为不同科目
+    private boolean alternateSubjects;
+    private List<StudentDTO> students = new ArrayList<>();
+
+    // Getters and Setters
+
+    public int getRows() {
+        return rows;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public void setCols(int cols) {
+        this.cols = cols;
+    }
+
+    public List<Integer> getBlockedSeats() {
+        return blockedSeats;
+    }
+
+    public void setBlockedSeats(List<Integer> blockedSeats) {
+        this.blockedSeats = blockedSeats;
+    }
+
+    public int getMaxSeats() {
+        return maxSeats;
+    }
+
+    public void setMaxSeats(int maxSeats) {
+        this.maxSeats = maxSeats;
+    }
+
+    public int getMinClassDistance() {
+        return minClassDistance;
+    }
+
+    public void setMinClassDistance(int minClassDistance) {
+        this.minClassDistance = minClassDistance;
+    }
+
+    public boolean isAlternateSubjects() {
+        return alternateSubjects;
+    }
+
+    public void setAlternateSubjects(boolean alternateSubjects) {
+        this.alternateSubjects = alternateSubjects;
+    }
+
+    public List<StudentDTO> getStudents() {
+        return students;
+    }
+
+    public void setStudents(List<StudentDTO> students) {
+        this.students = students;
+    }
+}
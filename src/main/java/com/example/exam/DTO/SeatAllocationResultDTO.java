@@ -0,0 +1,68 @@
+package com.example.exam.DTO;
+
+/**
+ * 自动排座结果
+ */
+public class SeatAllocationResultDTO {
+    private Long examId;
+    private String room;
+    private int totalSeats;
+    private int assignedSeats;
+    private int emptySeats;
+    private long elapsedMillis;
+
+    public SeatAllocationResultDTO(Long examId, String room) {
+        this.examId = examId;
+        this.room = room;
+    }
+
+    // Getters and Setters
+
+    public Long getExamId() {
+        return examId;
+    }
+
+    public void setExamId(Long examId) {
+        this.examId = examId;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(int totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public int getAssignedSeats() {
+        return assignedSeats;
+    }
+
+    public void setAssignedSeats(int assignedSeats) {
+        this.assignedSeats = assignedSeats;
+    }
+
+    public int getEmptySeats() {
+        return emptySeats;
+    }
+
+    public void setEmptySeats(int emptySeats) {
+        this.emptySeats = emptySeats;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.exam.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 座位号冲突校验结果
+ * 包含批次内重复的座位号和与数据库中已有座位冲突的座位号
+ */
+public class SeatConflictReport {
+    // 消息中最多列出的座位号数量
+    private static final int MAX_LISTED = 20;
+
+    private final List<Integer> duplicateSeatNumbers = new ArrayList<>();
+    private final List<Integer> existingSeatNumbers = new ArrayList<>();
+    private int missingSeatNumbers;
+
+    public void addDuplicate(int seatNumber) {
+        duplicateSeatNumbers.add(seatNumber);
+    }
+
+    public void addExisting(int seatNumber) {
+        existingSeatNumbers.add(seatNumber);
+    }
+
+    public void addMissing() {
+        missingSeatNumbers++;
+    }
+
+    public boolean hasConflicts() {
+        return missingSeatNumbers > 0 || !duplicateSeatNumbers.isEmpty() || !existingSeatNumbers.isEmpty();
+    }
+
+    public List<Integer> getDuplicateSeatNumbers() {
+        return duplicateSeatNumbers;
+    }
+
+    public List<Integer> getExistingSeatNumbers() {
+        return existingSeatNumbers;
+    }
+
+    public int getMissingSeatNumbers() {
+        return missingSeatNumbers;
+    }
+
+    /**
+     * 生成面向用户的冲突说明
+     * @param action 操作名称，如"保存"、"导入"
+     */
+    public String toMessage(String action) {
+        List<String> parts = new ArrayList<>();
+        if (missingSeatNumbers > 0) {
+            parts.add(missingSeatNumbers + " 条座位信息缺少座位号");
+        }
+        if (!duplicateSeatNumbers.isEmpty()) {
+            parts.add("座位号 " + join(duplicateSeatNumbers) + " 重复");
+        }
+        if (!existingSeatNumbers.isEmpty()) {
+            parts.add("座位号 " + join(existingSeatNumbers) + " 已存在于该房间中");
+        }
+        return String.join("；", parts) + "，请修改后再" + action + "！";
+    }
+
+    private static String join(List<Integer> seatNumbers) {
+        StringBuilder sb = new StringBuilder();
+        int limit = Math.min(seatNumbers.size(), MAX_LISTED);
+        for (int i = 0; i < limit; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(seatNumbers.get(i));
+        }
+        if (seatNumbers.size() > limit) {
+            sb.append(" 等").append(seatNumbers.size()).append("个");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.exam.DTO;
+
+import java.util.List;
+
+/**
+ * 座位变更推送内容
+ * 首次订阅时 seats 为全部座位；之后只包含新增或修改的座位和被移除的座位号
+ */
+public class SeatDeltaDTO {
+    private final Long examId;
+    private final long sequence;
+    private final List<SeatRowDTO> seats;
+    private final List<Integer> removed;
+
+    public SeatDeltaDTO(Long examId, long sequence, List<SeatRowDTO> seats, List<Integer> removed) {
+        this.examId = examId;
+        this.sequence = sequence;
+        this.seats = seats;
+        this.removed = removed;
+    }
+
+    public Long getExamId() {
+        return examId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public List<SeatRowDTO> getSeats() {
+        return seats;
+    }
+
+    public List<Integer> getRemoved() {
+        return removed;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.exam.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * 学生座位位置，用于按姓名查询考场和座位号
+ */
+public class SeatLocationDTO {
+    private final String studentName;
+    private final Long examId;
+    private final String room;
+    private final String subject;
+    private final LocalDate examDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final Integer seatNumber;
+
+    public SeatLocationDTO(String studentName, Long examId, String room, String subject,
+                           LocalDate examDate, LocalTime startTime, LocalTime endTime, Integer seatNumber) {
+        this.studentName = studentName;
+        this.examId = examId;
+        this.room = room;
+        this.subject = subject;
+        this.examDate = examDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.seatNumber = seatNumber;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public Long getExamId() {
+        return examId;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public LocalDate getExamDate() {
+        return examDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public Integer getSeatNumber() {
+        return seatNumber;
+    }
+}
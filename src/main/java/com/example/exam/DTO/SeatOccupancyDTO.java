@@ -0,0 +1,93 @@
+package com.example.exam.DTO;
+
+import java.time.LocalDate;
+
+/**
+ * 试室座位占用情况
+ */
+public class SeatOccupancyDTO {
+    private Long examId;
+    private String room;
+    private String subject;
+    private LocalDate examDate;
+    private String startEndTime;
+    private int totalSeats;
+    private int occupiedSeats;
+    private int freeSeats;
+    // 第一个空座的座位号，没有空座时为null
+    private Integer nextFreeSeat;
+
+    // Getters and Setters
+
+    public Long getExamId() {
+        return examId;
+    }
+
+    public void setExamId(Long examId) {
+        this.examId = examId;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public LocalDate getExamDate() {
+        return examDate;
+    }
+
+    public void setExamDate(LocalDate examDate) {
+        this.examDate = examDate;
+    }
+
+    public String getStartEndTime() {
+        return startEndTime;
+    }
+
+    public void setStartEndTime(String startEndTime) {
+        this.startEndTime = startEndTime;
+    }
+
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(int totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public int getOccupiedSeats() {
+        return occupiedSeats;
+    }
+
+    public void setOccupiedSeats(int occupiedSeats) {
+        this.occupiedSeats = occupiedSeats;
+    }
+
+    public int getFreeSeats() {
+        return freeSeats;
+    }
+
+    public void setFreeSeats(int freeSeats) {
+        this.freeSeats = freeSeats;
+    }
+
+    public Integer getNextFreeSeat() {
+        return nextFreeSeat;
+    }
+
+    public void setNextFreeSeat(Integer nextFreeSeat) {
+        this.nextFreeSeat = nextFreeSeat;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.exam.DTO;
+
+/**
+ * 座位行数据，只包含座位表页面、Excel导出和接口需要的字段
+ * 由JPQL构造表达式直接创建，不加载座位实体及其关联的考试。可用状态与座位实体一样保留数据库中的null
+ */
+public class SeatRowDTO {
+    private final Integer seatNumber;
+    private final String studentName;
+    private final Boolean available;
+
+    public SeatRowDTO(Integer seatNumber, String studentName, Boolean available) {
+        this.seatNumber = seatNumber;
+        this.studentName = studentName;
+        this.available = available;
+    }
+
+    public Integer getSeatNumber() {
+        return seatNumber;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    // 未设置可用状态时与 Seat.isAvailable 一致，视为可用
+    public boolean isAvailable() {
+        return available != null ? available : true;
+    }
+}
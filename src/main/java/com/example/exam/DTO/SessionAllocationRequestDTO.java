@@ -0,0 +1,50 @@
+package com.example.exam.DTO;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 整场考试自动排座请求
+ * 继承的布局字段作为各试室的默认布局，roomLayouts 可按试室号覆盖布局（其中的学生名单不使用），
+ * 学生名单在同一时段的全部试室之间按容量分配
+ */
+public class SessionAllocationRequestDTO extends SeatAllocationRequestDTO {
+    private String examDate;
+    private String startTime;
+    private String endTime;
+    private Map<String, SeatAllocationRequestDTO> roomLayouts = new HashMap<>();
+
+    // Getters and Setters
+
+    public String getExamDate() {
+        return examDate;
+    }
+
+    public void setExamDate(String examDate) {
+        this.examDate = examDate;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public String getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(String endTime) {
+        this.endTime = endTime;
+    }
+
+    public Map<String, SeatAllocationRequestDTO> getRoomLayouts() {
+        return roomLayouts;
+    }
+
+    public void setRoomLayouts(Map<String, SeatAllocationRequestDTO> roomLayouts) {
+        this.roomLayouts = roomLayouts;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.exam.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 整场考试自动排座结果
+ */
+public class SessionAllocationResultDTO {
+    private int totalStudents;
+    private long solveMillis;
+    private long elapsedMillis;
+    private List<SeatAllocationResultDTO> rooms = new ArrayList<>();
+
+    // Getters and Setters
+
+    public int getTotalStudents() {
+        return totalStudents;
+    }
+
+    public void setTotalStudents(int totalStudents) {
+        this.totalStudents = totalStudents;
+    }
+
+    public long getSolveMillis() {
+        return solveMillis;
+    }
+
+    public void setSolveMillis(long solveMillis) {
+        this.solveMillis = solveMillis;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<SeatAllocationResultDTO> getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(List<SeatAllocationResultDTO> rooms) {
+        this.rooms = rooms;
+    }
+}
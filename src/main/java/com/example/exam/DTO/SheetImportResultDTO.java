@@ -0,0 +1,67 @@
+package com.example.exam.DTO;
+
+/**
+ * 多工作表导入中单个工作表的导入结果
+ */
+public class SheetImportResultDTO {
+    private String sheetName;
+    private String room;
+    private String slot;
+    private int importedSeats;
+    private boolean success;
+    private String message;
+
+    public SheetImportResultDTO(String sheetName) {
+        this.sheetName = sheetName;
+    }
+
+    // Getters and Setters
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    public void setSheetName(String sheetName) {
+        this.sheetName = sheetName;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public String getSlot() {
+        return slot;
+    }
+
+    public void setSlot(String slot) {
+        this.slot = slot;
+    }
+
+    public int getImportedSeats() {
+        return importedSeats;
+    }
+
+    public void setImportedSeats(int importedSeats) {
+        this.importedSeats = importedSeats;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
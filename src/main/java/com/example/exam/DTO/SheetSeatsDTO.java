@@ -0,0 +1,82 @@
+package com.example.exam.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 工作簿中一个工作表解析出的座位数据及其对应的考试时段
+ * 时段无法识别时room等字段为null
+ */
+public class SheetSeatsDTO {
+    private String sheetName;
+    private String subject;
+    private String room;
+    private LocalDate examDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private List<SeatDTO> seats = new ArrayList<>();
+
+    // Getters and Setters
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    public void setSheetName(String sheetName) {
+        this.sheetName = sheetName;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public void setRoom(String room) {
+        this.room = room;
+    }
+
+    public LocalDate getExamDate() {
+        return examDate;
+    }
+
+    public void setExamDate(LocalDate examDate) {
+        this.examDate = examDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public List<SeatDTO> getSeats() {
+        return seats;
+    }
+
+    public void setSeats(List<SeatDTO> seats) {
+        this.seats = seats;
+    }
+
+    public boolean hasSlot() {
+        return room != null && examDate != null && startTime != null && endTime != null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.exam.DTO;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 学生跨考试冲突校验结果
+ * 记录在同一日期、时间段重叠的其他考试中已经安排了座位的学生
+ */
+public class StudentConflictReport {
+    // 消息中最多列出的学生数量
+    private static final int MAX_LISTED = 20;
+
+    private final List<Conflict> conflicts = new ArrayList<>();
+
+    public void add(String studentName, Long examId, String room, String subject,
+                    LocalDate examDate, LocalTime startTime, LocalTime endTime) {
+        conflicts.add(new Conflict(studentName, examId, room, subject, examDate, startTime, endTime));
+    }
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    public List<Conflict> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * 生成面向用户的冲突说明
+     */
+    public String toMessage() {
+        StringBuilder sb = new StringBuilder("以下学生在同一时间段已安排在其他考试中：");
+        int limit = Math.min(conflicts.size(), MAX_LISTED);
+        for (int i = 0; i < limit; i++) {
+            if (i > 0) {
+                sb.append("，");
+            }
+            Conflict conflict = conflicts.get(i);
+            sb.append(conflict.getStudentName()).append("（").append(conflict.getRoom()).append(" ")
+                    .append(conflict.getExamDate()).append(" ")
+                    .append(conflict.getStartTime()).append("~").append(conflict.getEndTime()).append("）");
+        }
+        if (conflicts.size() > limit) {
+            sb.append(" 等").append(conflicts.size()).append("人");
+        }
+        return sb.toString();
+    }
+
+    public static class Conflict {
+        private final String studentName;
+        private final Long examId;
+        private final String room;
+        private final String subject;
+        private final LocalDate examDate;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+
+        Conflict(String studentName, Long examId, String room, String subject,
+                 LocalDate examDate, LocalTime startTime, LocalTime endTime) {
+            this.studentName = studentName;
+            this.examId = examId;
+            this.room = room;
+            this.subject = subject;
+            this.examDate = examDate;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        public String getStudentName() {
+            return studentName;
+        }
+
+        public Long getExamId() {
+            return examId;
+        }
+
+        public String getRoom() {
+            return room;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public LocalDate getExamDate() {
+            return examDate;
+        }
+
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+    }
+}
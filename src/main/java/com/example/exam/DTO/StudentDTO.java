@@ -0,0 +1,45 @@
+package com.example.exam.DTO;
+
+/**
+ * 参加考试的学生，用于自动排座
+ */
+public class StudentDTO {
+    private String name;
+    private String className;
+    private String subject;
+
+    public StudentDTO() {
+    }
+
+    public StudentDTO(String name, String className, String subject) {
+        this.name = name;
+        this.className = className;
+        this.subject = subject;
+    }
+
+    // Getters and Setters
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+}
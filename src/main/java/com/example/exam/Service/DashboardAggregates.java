@@ -0,0 +1,361 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.DashboardRoomDTO;
+import com.example.exam.model.Exam;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 控制面板统计
+ * 按（日期、试室）汇总考试数、座位数、已占用座位数和进行中的导入任务数，
+ * 由考试保存、座位变更事件和导入任务增量维护，控制面板刷新时直接读取统计，不查询数据库。
+ * 计数器只在持有锁时读写，增量按每场考试上一次登记的数量计算差值，计数归零的试室和日期随即删除；
+ * 每次更新后把受影响日期的统计按试室排好序，发布为不可变列表，读取时不加锁也不排序。
+ * 座位数和占用数按座位空闲位图（SeatAvailabilityIndex）的口径统计，与座位占用接口一致。
+ * 定时用一条聚合查询与数据库核对，修正遗漏的变更；核对时逐个考试短暂加锁，不会长时间阻塞增量更新
+ */
+@Component
+public class DashboardAggregates {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardAggregates.class);
+
+    // 与座位空闲位图相同，只统计0到MAX_SEAT_NUMBER号座位；座位号在考试内唯一（uk_exam_seat），不需要去重
+    private static final String RECONCILE_SQL = "SELECT e.id, e.exam_date, e.room, COUNT(s.id), "
+            + "COALESCE(SUM(CASE WHEN s.available = FALSE THEN 1 ELSE 0 END), 0) "
+            + "FROM exam e LEFT JOIN seat s ON s.exam_id = e.id "
+            + "AND s.seat_number BETWEEN 0 AND " + SeatAvailabilityIndex.MAX_SEAT_NUMBER + " "
+            + "GROUP BY e.id, e.exam_date, e.room";
+
+    // 日期 -> 试室 -> 计数器，只在持有锁时读写
+    private final Map<LocalDate, Map<String, RoomTotals>> totalsByDate = new HashMap<>();
+    // 日期 -> 按试室排序的统计，发布后不再修改
+    private final Map<LocalDate, List<RoomStats>> published = new ConcurrentHashMap<>();
+    // 计数器有变化、尚未重新发布的日期，只在持有锁时修改
+    private final Set<LocalDate> changedDates = new HashSet<>();
+    // 考试ID -> 该考试已计入的数量，只在持有锁时修改
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    // 已删除的考试ID -> 删除时的序号，核对时避免用删除前查到的数据把考试加回来
+    private final Map<Long, Long> deletedExams = new HashMap<>();
+    // 每次增量更新加一，核对时据此判断哪些考试在查询之后又有变更
+    private long sequence;
+    private volatile boolean loaded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 应用启动完成后从数据库加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+        loaded = true;
+    }
+
+    /**
+     * 登记新增或修改的考试，座位数量不变，存在事务时在提交后生效
+     */
+    public void examSaved(Exam exam) {
+        if (exam == null || exam.getId() == null) {
+            return;
+        }
+        Long examId = exam.getId();
+        LocalDate examDate = exam.getExamDate();
+        String room = exam.getRoom();
+        afterCommit(() -> {
+            synchronized (this) {
+                Contribution previous = contributions.get(examId);
+                int seats = previous != null ? previous.seats : 0;
+                int occupied = previous != null ? previous.occupied : 0;
+                apply(examId, new Contribution(examDate, room, seats, occupied, ++sequence));
+                publishChanges();
+            }
+        });
+    }
+
+    /**
+     * 座位变更后（事务提交后）按该考试变更后的座位更新计数
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSeatsChanged(SeatsChangedEvent event) {
+        Exam exam = event.getExam();
+        if (event.isExamDeleted()) {
+            apply(exam.getId(), null);
+            deletedExams.put(exam.getId(), ++sequence);
+        } else {
+            SeatAvailabilityIndex.Availability availability = SeatAvailabilityIndex.of(event.getSeats());
+            apply(exam.getId(), new Contribution(exam.getExamDate(), exam.getRoom(),
+                    availability.getSeatCount(), availability.getOccupiedCount(), ++sequence));
+        }
+        publishChanges();
+    }
+
+    /**
+     * 导入任务提交后计入进行中的导入
+     */
+    public synchronized void importStarted(SeatImportJob job) {
+        totals(job.getExamDate(), job.getRoom()).imports++;
+        release(job.getExamDate(), job.getRoom());
+        publishChanges();
+    }
+
+    /**
+     * 导入任务结束（成功、失败或未能提交）后移出进行中的导入
+     */
+    public synchronized void importFinished(SeatImportJob job) {
+        totals(job.getExamDate(), job.getRoom()).imports--;
+        release(job.getExamDate(), job.getRoom());
+        publishChanges();
+    }
+
+    /**
+     * 指定日期各试室的统计，按试室排序；没有考试也没有进行中导入的试室不返回
+     */
+    public List<DashboardRoomDTO> getRooms(LocalDate examDate) {
+        List<RoomStats> rooms = published.getOrDefault(examDate, Collections.emptyList());
+        List<DashboardRoomDTO> result = new ArrayList<>(rooms.size());
+        for (RoomStats stats : rooms) {
+            result.add(stats.toDTO(examDate));
+        }
+        return result;
+    }
+
+    /**
+     * 与数据库核对考试和座位数量
+     * 查询期间发生变更的考试以增量登记的数量为准，其余考试以数据库为准，有差异时修正计数器并记录日志
+     */
+    @Scheduled(fixedDelayString = "${exam.dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${exam.dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long startSequence;
+        synchronized (this) {
+            startSequence = sequence;
+        }
+        Map<Long, Contribution> actual = new HashMap<>();
+        jdbcTemplate.query(RECONCILE_SQL, rs -> {
+            Date examDate = rs.getDate(2);
+            actual.put(rs.getLong(1), new Contribution(examDate != null ? examDate.toLocalDate() : null,
+                    rs.getString(3), rs.getInt(4), rs.getInt(5), startSequence));
+        });
+
+        List<Long> counted;
+        synchronized (this) {
+            counted = new ArrayList<>(contributions.keySet());
+        }
+        int corrected = 0;
+        for (Long examId : counted) {
+            if (!actual.containsKey(examId) && reconcileExam(examId, null, startSequence)) {
+                corrected++;
+            }
+        }
+        for (Map.Entry<Long, Contribution> entry : actual.entrySet()) {
+            if (reconcileExam(entry.getKey(), entry.getValue(), startSequence)) {
+                corrected++;
+            }
+        }
+        synchronized (this) {
+            deletedExams.values().removeIf(deletedAt -> deletedAt <= startSequence);
+            publishChanges();
+        }
+        if (loaded && corrected > 0) {
+            logger.warn("控制面板统计与数据库不一致，已修正 {} 个考试", corrected);
+        } else if (!loaded) {
+            logger.info("控制面板统计加载完成，共 {} 个考试", actual.size());
+        }
+    }
+
+    /**
+     * 用核对查到的数量修正一场考试，actual为null表示数据库中已没有该考试。
+     * 查询之后又有增量登记或被删除的考试以增量为准，不修正
+     * @return 是否修正了计数
+     */
+    private synchronized boolean reconcileExam(Long examId, Contribution actual, long startSequence) {
+        Contribution current = contributions.get(examId);
+        if (actual == null) {
+            if (current == null || current.sequence > startSequence) {
+                return false;
+            }
+        } else if ((current != null && current.sequence > startSequence)
+                || deletedExams.getOrDefault(examId, 0L) > startSequence
+                || actual.sameCounts(current)) {
+            return false;
+        }
+        apply(examId, actual);
+        return true;
+    }
+
+    // 用新的数量替换考试已计入的数量，next为null表示移除考试
+    private void apply(Long examId, Contribution next) {
+        Contribution previous = next != null ? contributions.put(examId, next) : contributions.remove(examId);
+        if (previous != null) {
+            RoomTotals totals = totals(previous.examDate, previous.room);
+            totals.exams--;
+            totals.seats -= previous.seats;
+            totals.occupied -= previous.occupied;
+            release(previous.examDate, previous.room);
+        }
+        if (next != null) {
+            RoomTotals totals = totals(next.examDate, next.room);
+            totals.exams++;
+            totals.seats += next.seats;
+            totals.occupied += next.occupied;
+        }
+    }
+
+    private RoomTotals totals(LocalDate examDate, String room) {
+        LocalDate dateKey = dateKey(examDate);
+        changedDates.add(dateKey);
+        return totalsByDate.computeIfAbsent(dateKey, date -> new HashMap<>())
+                .computeIfAbsent(roomKey(room), key -> new RoomTotals());
+    }
+
+    // 试室没有考试也没有进行中的导入时删除计数器，日期下没有试室时删除日期
+    private void release(LocalDate examDate, String room) {
+        LocalDate dateKey = dateKey(examDate);
+        Map<String, RoomTotals> rooms = totalsByDate.get(dateKey);
+        if (rooms == null) {
+            return;
+        }
+        String roomKey = roomKey(room);
+        RoomTotals totals = rooms.get(roomKey);
+        if (totals != null && totals.isEmpty()) {
+            rooms.remove(roomKey);
+            if (rooms.isEmpty()) {
+                totalsByDate.remove(dateKey);
+            }
+        }
+    }
+
+    // 重新发布计数器有变化的日期
+    private void publishChanges() {
+        for (LocalDate dateKey : changedDates) {
+            Map<String, RoomTotals> rooms = totalsByDate.get(dateKey);
+            if (rooms == null) {
+                published.remove(dateKey);
+                continue;
+            }
+            List<RoomStats> stats = new ArrayList<>(rooms.size());
+            rooms.forEach((room, totals) -> stats.add(new RoomStats(room, totals)));
+            stats.sort(Comparator.comparing(RoomStats::getRoom));
+            published.put(dateKey, Collections.unmodifiableList(stats));
+        }
+        changedDates.clear();
+    }
+
+    // 日期或试室缺失的考试单独归到空键下，保证增减对称
+    private static LocalDate dateKey(LocalDate examDate) {
+        return examDate != null ? examDate : LocalDate.MIN;
+    }
+
+    private static String roomKey(String room) {
+        return room != null ? room : "";
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 一个试室一天的计数器，只在持有DashboardAggregates的锁时读写
+     */
+    private static class RoomTotals {
+        private long exams;
+        private long seats;
+        private long occupied;
+        private long imports;
+
+        boolean isEmpty() {
+            return exams == 0 && imports == 0;
+        }
+    }
+
+    /**
+     * 发布时复制的一个试室一天的统计，不可变
+     */
+    private static final class RoomStats {
+        private final String room;
+        private final long exams;
+        private final long seats;
+        private final long occupied;
+        private final long imports;
+
+        RoomStats(String room, RoomTotals totals) {
+            this.room = room;
+            this.exams = totals.exams;
+            this.seats = totals.seats;
+            this.occupied = totals.occupied;
+            this.imports = totals.imports;
+        }
+
+        String getRoom() {
+            return room;
+        }
+
+        DashboardRoomDTO toDTO(LocalDate examDate) {
+            DashboardRoomDTO dto = new DashboardRoomDTO();
+            dto.setExamDate(examDate);
+            dto.setRoom(room);
+            dto.setExams(exams);
+            dto.setSeats(seats);
+            dto.setOccupiedSeats(occupied);
+            dto.setFreeSeats(seats - occupied);
+            dto.setImportsInProgress(imports);
+            return dto;
+        }
+    }
+
+    /**
+     * 一场考试计入的数量
+     */
+    private static class Contribution {
+        private final LocalDate examDate;
+        private final String room;
+        private final int seats;
+        private final int occupied;
+        private final long sequence;
+
+        Contribution(LocalDate examDate, String room, int seats, int occupied, long sequence) {
+            this.examDate = examDate;
+            this.room = room;
+            this.seats = seats;
+            this.occupied = occupied;
+            this.sequence = sequence;
+        }
+
+        boolean sameCounts(Contribution other) {
+            return other != null && Objects.equals(examDate, other.examDate) && Objects.equals(room, other.room)
+                    && seats == other.seats && occupied == other.occupied;
+        }
+    }
+}
@@ -4,8 +4,11 @@ import com.example.exam.DTO.ExamSeatDTO;
 import com.example.exam.exception.BusinessException;
 import com.example.exam.model.Exam;
 import com.example.exam.respository.ExamRepository;
+import com.example.exam.respository.SeatRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -18,11 +21,23 @@ public class ExamService {
     @Autowired
     private ExamRepository examRepository;
 
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private ExamSlotIndex examSlotIndex;
+
+    @Autowired
+    private DashboardAggregates dashboardAggregates;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Optional<Exam> getExamByRoomNumber(String roomNumber) {
         return examRepository.findByRoom(roomNumber);
     }
 
-    public void saveExam(Exam exam) {
+    public Exam saveExam(Exam exam) {
         if (exam == null) {
             throw new BusinessException(400, "考试信息不能为空");
         }
@@ -43,11 +58,44 @@ public class ExamService {
             throw new BusinessException(400, "考试日期不能为空");
         }
         
+        boolean update = exam.getId() != null;
+        Exam saved;
         try {
-            examRepository.save(exam);
+            saved = examRepository.save(exam);
         } catch (Exception e) {
             throw new BusinessException(500, "保存考试信息失败: " + e.getMessage());
         }
+        examSlotIndex.put(saved);
+        dashboardAggregates.examSaved(saved);
+        if (update) {
+            // 修改考试可能改变时段，已有座位需要按新时段重新登记
+            eventPublisher.publishEvent(new SeatsChangedEvent(saved, seatRepository.findSeatRowsByExamId(saved.getId())));
+        }
+        return saved;
+    }
+
+    // 删除考试及其全部座位
+    @Transactional
+    public void deleteExam(Long examId) {
+        if (examId == null) {
+            throw new BusinessException(400, "考试ID不能为空");
+        }
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new BusinessException(404, "考试信息不存在"));
+        seatRepository.deleteByExamId(examId);
+        examRepository.delete(exam);
+        examSlotIndex.remove(examId);
+        eventPublisher.publishEvent(SeatsChangedEvent.examDeleted(exam));
+    }
+
+    // 根据试室和时段查找考试，查询走内存索引
+    public Optional<Exam> findExamBySlot(String room, LocalTime startTime, LocalTime endTime, LocalDate examDate) {
+        return examSlotIndex.find(room, startTime, endTime, examDate);
+    }
+
+    // 根据ID查找考试，查询走内存索引
+    public Optional<Exam> findExamById(Long examId) {
+        return examSlotIndex.findById(examId);
     }
    // @Override
 
@@ -64,12 +112,12 @@ public class ExamService {
             throw new BusinessException(400, "考试日期不能为空");
         }
         
-        ExamSeatDTO examDetails = examRepository.findExamDetailsByRoomAndTimeAndDate(room, startTime, endTime, examDate);
-        if (examDetails == null) {
+        Optional<Exam> exam = examSlotIndex.find(room, startTime, endTime, examDate);
+        if (!exam.isPresent()) {
             throw new BusinessException(404, "未找到指定房间和时间的考试信息");
         }
         
-        return examDetails;
+        return new ExamSeatDTO(exam.get().getSubject(), exam.get().getNotes());
     }
 
     public List<Exam> getAllExams() {
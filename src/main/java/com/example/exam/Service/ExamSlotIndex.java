@@ -0,0 +1,155 @@
+package com.example.exam.Service;
+
+import com.example.exam.model.Exam;
+import com.example.exam.respository.ExamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 考试时段内存索引
+ * 启动时从数据库加载全部考试，按（试室、日期、开始时间、结束时间）建立索引，
+ * 由ExamService在保存和删除考试时同步维护，时段查询不再访问数据库
+ */
+@Component
+public class ExamSlotIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExamSlotIndex.class);
+
+    private final Map<ExamSlotKey, Exam> examsBySlot = new ConcurrentHashMap<>();
+    private final Map<Long, Exam> examsById = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    /**
+     * 应用启动完成后加载全部考试
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Exam> exams = examRepository.findAll();
+        for (Exam exam : exams) {
+            // 加载期间保存的考试以较新的数据为准
+            if (!examsById.containsKey(exam.getId())) {
+                index(copyOf(exam));
+            }
+        }
+        loaded = true;
+        logger.info("考试时段索引加载完成，共 {} 个考试", examsById.size());
+    }
+
+    /**
+     * 根据试室和时段查找考试；索引尚未加载时回退到数据库查询
+     */
+    public Optional<Exam> find(String room, LocalTime startTime, LocalTime endTime, LocalDate examDate) {
+        if (!loaded) {
+            return examRepository.findByRoomAndStartTimeAndEndTimeAndExamDate(room, startTime, endTime, examDate);
+        }
+        return Optional.ofNullable(examsBySlot.get(ExamSlotKey.of(room, examDate, startTime, endTime)));
+    }
+
+    /**
+     * 根据ID查找考试
+     */
+    public Optional<Exam> findById(Long examId) {
+        if (!loaded) {
+            return examRepository.findById(examId);
+        }
+        return Optional.ofNullable(examsById.get(examId));
+    }
+
+    /**
+     * 返回全部已索引的考试
+     */
+    public Collection<Exam> getAll() {
+        return new ArrayList<>(examsById.values());
+    }
+
+    /**
+     * 登记新增或修改的考试，存在事务时在提交后生效
+     */
+    public void put(Exam exam) {
+        if (exam == null || exam.getId() == null) {
+            return;
+        }
+        Exam copy = copyOf(exam);
+        afterCommit(() -> index(copy));
+    }
+
+    /**
+     * 移除已删除的考试，存在事务时在提交后生效
+     */
+    public void remove(Long examId) {
+        afterCommit(() -> {
+            Exam removed = examsById.remove(examId);
+            if (removed != null && hasSlot(removed)) {
+                examsBySlot.remove(keyOf(removed), removed);
+            }
+        });
+    }
+
+    private void index(Exam exam) {
+        Exam previous = examsById.put(exam.getId(), exam);
+        if (previous != null && hasSlot(previous)) {
+            // 考试时段发生变化时移除旧的时段键
+            examsBySlot.remove(keyOf(previous), previous);
+        }
+        if (hasSlot(exam)) {
+            examsBySlot.put(keyOf(exam), exam);
+        }
+    }
+
+    private static boolean hasSlot(Exam exam) {
+        return exam.getRoom() != null && exam.getExamDate() != null
+                && exam.getStartTime() != null && exam.getEndTime() != null;
+    }
+
+    private static ExamSlotKey keyOf(Exam exam) {
+        return ExamSlotKey.of(exam.getRoom(), exam.getExamDate(), exam.getStartTime(), exam.getEndTime());
+    }
+
+    /**
+     * 复制考试的基本信息，索引中不保留与持久化上下文关联的实体和座位集合
+     */
+    private static Exam copyOf(Exam exam) {
+        Exam copy = new Exam();
+        copy.setId(exam.getId());
+        copy.setRoom(exam.getRoom());
+        copy.setSubject(exam.getSubject());
+        copy.setExamType(exam.getExamType());
+        copy.setStartEndTime(exam.getStartEndTime());
+        copy.setStartTime(exam.getStartTime());
+        copy.setEndTime(exam.getEndTime());
+        copy.setExamDate(exam.getExamDate());
+        copy.setNotes(exam.getNotes());
+        return copy;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.exam.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * 考试时段键：试室号 + 日期/开始时间/结束时间
+ * 日期和起止时间压缩到一个long中，比较和哈希只涉及一个字符串和一个long
+ */
+public final class ExamSlotKey {
+    private final String room;
+    private final long packedTime;
+
+    private ExamSlotKey(String room, long packedTime) {
+        this.room = room;
+        this.packedTime = packedTime;
+    }
+
+    public static ExamSlotKey of(String room, LocalDate examDate, LocalTime startTime, LocalTime endTime) {
+        return new ExamSlotKey(room, pack(examDate, startTime, endTime));
+    }
+
+    /**
+     * 高位存放日期（epoch day），低34位分两段各17位存放开始、结束时间的秒数
+     */
+    static long pack(LocalDate examDate, LocalTime startTime, LocalTime endTime) {
+        return (examDate.toEpochDay() << 34)
+                | ((long) startTime.toSecondOfDay() << 17)
+                | endTime.toSecondOfDay();
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExamSlotKey)) {
+            return false;
+        }
+        ExamSlotKey other = (ExamSlotKey) o;
+        return packedTime == other.packedTime && room.equals(other.room);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * room.hashCode() + Long.hashCode(packedTime);
+    }
+
+    @Override
+    public String toString() {
+        return room + "@" + packedTime;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.exam.Service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 考试版本号
+ * 每场考试一个内存中的修改计数，座位写入、考试修改或删除（事务提交后）时加一，
+ * 接口据此生成ETag，客户端轮询时版本未变即可返回304，无需查询数据库。
+ * ETag中包含本次启动的时间戳，重启后计数归零也不会与客户端缓存的ETag相同
+ */
+@Component
+public class ExamVersionTracker {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // 考试ID -> 修改计数，未修改过的考试不占用条目
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long getVersion(Long examId) {
+        AtomicLong version = versions.get(examId);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * 考试当前版本的ETag
+     * 生成响应时须先取ETag再读取数据：读取过程中发生修改时ETag偏旧，下次请求仍会返回新内容
+     */
+    public String getETag(Long examId) {
+        return "\"" + epoch + "-" + examId + "-" + getVersion(examId) + "\"";
+    }
+
+    public void increment(Long examId) {
+        versions.computeIfAbsent(examId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        increment(event.getExam().getId());
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatOccupancyDTO;
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.model.Exam;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 座位空闲位图
+ * 每场考试用两个按座位号索引的 long[] 位图记录已有的座位和其中可用的座位，
+ * 空座数、已占用数和"下一个空座"只遍历位图的字，不再对座位表做 GROUP BY。
+ * 启动时从数据库加载，之后随座位变更事件（事务提交后）整体替换该考试的位图；
+ * 位图不可变，查询无锁
+ */
+@Component
+public class SeatAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatAvailabilityIndex.class);
+
+    private static final String LOAD_SQL = "SELECT exam_id, seat_number, available FROM seat WHERE seat_number IS NOT NULL";
+
+    // 超出该座位号的座位不计入位图，避免异常数据分配过大的数组
+    static final int MAX_SEAT_NUMBER = 1 << 16;
+
+    private static final Availability EMPTY = new Availability(new long[0], new long[0]);
+
+    private final Map<Long, Availability> availabilityByExam = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExamSlotIndex examSlotIndex;
+
+    /**
+     * 应用启动完成后从数据库加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        Map<Long, Builder> builders = new HashMap<>();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            boolean available = rs.getObject(3) == null || rs.getBoolean(3);
+            builders.computeIfAbsent(rs.getLong(1), id -> new Builder()).add(rs.getInt(2), available);
+        });
+        builders.forEach((examId, builder) -> availabilityByExam.put(examId, builder.build()));
+        loaded = true;
+        logger.info("座位空闲位图加载完成，共 {} 个考试", availabilityByExam.size());
+    }
+
+    /**
+     * 座位变更后（事务提交后）重建该考试的位图
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSeatsChanged(SeatsChangedEvent event) {
+        if (!loaded) {
+            // 尚未加载时变更已在数据库中，加载时会一并读取
+            return;
+        }
+        Long examId = event.getExam().getId();
+        if (event.isExamDeleted()) {
+            availabilityByExam.remove(examId);
+            return;
+        }
+        availabilityByExam.put(examId, of(event.getSeats()));
+    }
+
+    /**
+     * 由座位行构建位图，座位数和占用数的统计口径与本索引一致：
+     * 只计入0到MAX_SEAT_NUMBER号座位，同一座位号只计一次
+     */
+    public static Availability of(Collection<SeatRowDTO> seats) {
+        Builder builder = new Builder();
+        for (SeatRowDTO seat : seats) {
+            if (seat.getSeatNumber() != null) {
+                builder.add(seat.getSeatNumber(), seat.isAvailable());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 考试的座位位图，没有座位时返回空位图
+     */
+    public Availability get(Long examId) {
+        if (!loaded) {
+            load();
+        }
+        return availabilityByExam.getOrDefault(examId, EMPTY);
+    }
+
+    /**
+     * 座位数
+     */
+    public int countSeats(Long examId) {
+        return get(examId).getSeatCount();
+    }
+
+    /**
+     * 可用的空座数
+     */
+    public int countFree(Long examId) {
+        return get(examId).getFreeCount();
+    }
+
+    /**
+     * 座位号大于after的第一个空座，没有时返回-1
+     */
+    public int nextFreeSeat(Long examId, int after) {
+        return get(examId).nextFree(after);
+    }
+
+    /**
+     * 指定日期各试室的座位占用情况，按试室和开始时间排序
+     */
+    public List<SeatOccupancyDTO> getOccupancy(LocalDate examDate) {
+        List<SeatOccupancyDTO> result = new ArrayList<>();
+        for (Exam exam : examSlotIndex.getAll()) {
+            if (!examDate.equals(exam.getExamDate())) {
+                continue;
+            }
+            Availability availability = get(exam.getId());
+            SeatOccupancyDTO dto = new SeatOccupancyDTO();
+            dto.setExamId(exam.getId());
+            dto.setRoom(exam.getRoom());
+            dto.setSubject(exam.getSubject());
+            dto.setExamDate(exam.getExamDate());
+            dto.setStartEndTime(exam.getStartEndTime());
+            dto.setTotalSeats(availability.getSeatCount());
+            dto.setOccupiedSeats(availability.getOccupiedCount());
+            dto.setFreeSeats(availability.getFreeCount());
+            int nextFree = availability.nextFree(-1);
+            dto.setNextFreeSeat(nextFree >= 0 ? nextFree : null);
+            result.add(dto);
+        }
+        result.sort(Comparator.comparing(SeatOccupancyDTO::getRoom, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(SeatOccupancyDTO::getStartEndTime, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * 单场考试的座位位图：第n号座位对应第 n/64 个字的第 n%64 位
+     */
+    public static final class Availability {
+        private final long[] seats;
+        private final long[] free;
+        private final int seatCount;
+        private final int freeCount;
+
+        Availability(long[] seats, long[] free) {
+            this.seats = seats;
+            this.free = free;
+            this.seatCount = bitCount(seats);
+            this.freeCount = bitCount(free);
+        }
+
+        public int getSeatCount() {
+            return seatCount;
+        }
+
+        public int getFreeCount() {
+            return freeCount;
+        }
+
+        public int getOccupiedCount() {
+            return seatCount - freeCount;
+        }
+
+        public boolean isFree(int seatNumber) {
+            return seatNumber >= 0 && (seatNumber >>> 6) < free.length && (free[seatNumber >>> 6] & (1L << seatNumber)) != 0;
+        }
+
+        /**
+         * 座位号大于after的第一个空座，没有时返回-1
+         */
+        public int nextFree(int after) {
+            if (after < 0) {
+                after = -1;
+            }
+            if ((long) after + 1 >= (long) free.length << 6) {
+                return -1;
+            }
+            int from = after + 1;
+            int word = from >>> 6;
+            // 屏蔽掉from之前的位
+            long bits = free[word] & (-1L << from);
+            while (true) {
+                if (bits != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                if (++word == free.length) {
+                    return -1;
+                }
+                bits = free[word];
+            }
+        }
+
+        private static int bitCount(long[] words) {
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+    }
+
+    private static final class Builder {
+        private long[] seats = new long[2];
+        private long[] free = new long[2];
+
+        void add(int seatNumber, boolean available) {
+            if (seatNumber < 0 || seatNumber > MAX_SEAT_NUMBER) {
+                return;
+            }
+            int word = seatNumber >>> 6;
+            if (word >= seats.length) {
+                int length = Math.max(word + 1, seats.length * 2);
+                seats = Arrays.copyOf(seats, length);
+                free = Arrays.copyOf(free, length);
+            }
+            long bit = 1L << seatNumber;
+            seats[word] |= bit;
+            // 同一座位号出现多次时以最后一次为准
+            if (available) {
+                free[word] |= bit;
+            } else {
+                free[word] &= ~bit;
+            }
+        }
+
+        Availability build() {
+            int length = seats.length;
+            while (length > 0 && seats[length - 1] == 0) {
+                length--;
+            }
+            return new Availability(Arrays.copyOf(seats, length), Arrays.copyOf(free, length));
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatDeltaDTO;
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 座位变更推送（Server-Sent Events）
+ * 监考老师打开座位表后订阅所在考试，订阅时推送一次全部座位，之后每次座位变更（事务提交后）
+ * 与上一次的座位比较，只推送新增、修改和移除的座位。
+ * 每个订阅者有一个有界的待发送队列，由发送线程池逐个写出；变更到来时只入队不阻塞，
+ * 队列已满说明客户端长期读不动，直接断开该订阅者，客户端重连后会重新收到全部座位。
+ * 没有变更时不占用线程，也不查询数据库
+ */
+@Component
+public class SeatChangeBroadcaster implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatChangeBroadcaster.class);
+
+    // 考试ID -> 订阅该考试的客户端和最近一次推送的座位
+    private final Map<Long, ExamChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // 收到的座位变更事件数，只在持有锁时读写，订阅时据此判断锁外查到的座位是否已过期
+    private long changes;
+
+    @Autowired
+    private SeatQueryCache seatQueryCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("seatEventExecutor")
+    private ThreadPoolTaskExecutor seatEventExecutor;
+
+    // 每个订阅者最多积压的推送数
+    @Value("${exam.sse.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${exam.sse.max-subscribers:2000}")
+    private int maxSubscribers;
+
+    @Value("${exam.sse.timeout-minutes:240}")
+    private long timeoutMinutes;
+
+    /**
+     * 订阅考试的座位变更，立即推送一次全部座位
+     */
+    public SseEmitter subscribe(Long examId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new BusinessException(503, "座位推送订阅数已达上限，请稍后再试");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMinutes * 60_000);
+        Subscriber subscriber = new Subscriber(examId, emitter, bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+
+        while (!join(examId, subscriber)) {
+            // 查询期间有座位变更，查到的座位可能已过期，重新查询
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    // 加入考试的频道，频道不存在时先在锁外查询座位，避免数据库查询期间阻塞其他订阅和变更推送；
+    // 查询期间有变更事件时返回false由调用方重试，保证新建频道的座位不会漏掉这次变更
+    private boolean join(Long examId, Subscriber subscriber) {
+        List<SeatRowDTO> seats = null;
+        long observedChanges = 0;
+        if (!channels.containsKey(examId)) {
+            synchronized (this) {
+                observedChanges = changes;
+            }
+            try {
+                seats = seatQueryCache.getSeats(examId);
+            } catch (RuntimeException e) {
+                subscriberCount.decrementAndGet();
+                throw e;
+            }
+        }
+        synchronized (this) {
+            if (!channels.containsKey(examId) && (seats == null || observedChanges != changes)) {
+                return false;
+            }
+            List<SeatRowDTO> preloaded = seats;
+            ExamChannel channel = channels.computeIfAbsent(examId, id -> new ExamChannel(preloaded));
+            channel.subscribers.add(subscriber);
+            subscriber.queue.offer(new Message(event("seats", channel.sequence,
+                    new SeatDeltaDTO(examId, channel.sequence, channel.currentSeats(), Collections.emptyList())), false));
+            return true;
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("exam.sse.subscribers", subscriberCount, AtomicInteger::get)
+                .description("座位推送订阅数")
+                .register(registry);
+        Gauge.builder("exam.sse.channels", channels, Map::size)
+                .description("有订阅者的考试数")
+                .register(registry);
+    }
+
+    /**
+     * 座位变更后（事务提交后）向订阅者推送差异
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSeatsChanged(SeatsChangedEvent event) {
+        changes++;
+        Long examId = event.getExam().getId();
+        ExamChannel channel = channels.get(examId);
+        if (channel == null) {
+            return;
+        }
+        if (event.isExamDeleted()) {
+            channels.remove(examId);
+            Message message = new Message(event("deleted", channel.sequence + 1,
+                    new SeatDeltaDTO(examId, channel.sequence + 1, Collections.emptyList(), Collections.emptyList())), true);
+            channel.subscribers.forEach(subscriber -> publish(subscriber, message));
+            return;
+        }
+
+        SeatDeltaDTO delta = channel.apply(examId, event.getSeats());
+        if (delta == null) {
+            return;
+        }
+        Message message = new Message(event("delta", delta.getSequence(), delta), false);
+        channel.subscribers.forEach(subscriber -> publish(subscriber, message));
+    }
+
+    private void publish(Subscriber subscriber, Message message) {
+        if (!subscriber.queue.offer(message)) {
+            logger.warn("考试 {} 的座位推送订阅者积压超过 {} 条，已断开", subscriber.examId, bufferSize);
+            close(subscriber);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    // 每个订阅者同一时间最多一个发送任务
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            seatEventExecutor.execute(() -> drain(subscriber));
+        } catch (TaskRejectedException e) {
+            subscriber.scheduled.set(false);
+            close(subscriber);
+        }
+    }
+
+    // 断开订阅者；发送线程可能正阻塞在该连接上，结束连接也交给线程池，避免阻塞写入座位的线程
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.queue.clear();
+        try {
+            seatEventExecutor.execute(subscriber.emitter::complete);
+        } catch (TaskRejectedException e) {
+            logger.warn("座位推送线程池已关闭，无法结束考试 {} 的订阅连接", subscriber.examId);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Message message;
+            while ((message = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(message.data);
+                    if (message.last) {
+                        subscriber.emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // 客户端已断开
+                    remove(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            subscriber.scheduled.set(false);
+            // 释放标记后又有新消息入队且没有其他线程接手时继续发送
+            if (subscriber.queue.isEmpty() || !subscriber.scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private synchronized void remove(Subscriber subscriber) {
+        if (!subscriber.removed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        ExamChannel channel = channels.get(subscriber.examId);
+        if (channel != null) {
+            channel.subscribers.remove(subscriber);
+            if (channel.subscribers.isEmpty()) {
+                channels.remove(subscriber.examId);
+            }
+        }
+    }
+
+    // 推送内容只序列化一次，所有订阅者共用
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(String name, long sequence, SeatDeltaDTO data) {
+        try {
+            return SseEmitter.event()
+                    .name(name)
+                    .id(Long.toString(sequence))
+                    .data(objectMapper.writeValueAsString(data))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("座位变更序列化失败", e);
+        }
+    }
+
+    private static class Message {
+        private final Set<ResponseBodyEmitter.DataWithMediaType> data;
+        // 发送后结束连接
+        private final boolean last;
+
+        Message(Set<ResponseBodyEmitter.DataWithMediaType> data, boolean last) {
+            this.data = data;
+            this.last = last;
+        }
+    }
+
+    private static class Subscriber {
+        private final Long examId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        Subscriber(Long examId, SseEmitter emitter, int bufferSize) {
+            this.examId = examId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(Math.max(bufferSize, 1));
+        }
+    }
+
+    /**
+     * 一场考试的订阅者和最近一次推送的座位，只在持有外层锁时修改
+     */
+    private static class ExamChannel {
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private Map<Integer, SeatRowDTO> seats;
+        private long sequence;
+
+        ExamChannel(List<SeatRowDTO> seats) {
+            this.seats = toMap(seats);
+        }
+
+        List<SeatRowDTO> currentSeats() {
+            return new ArrayList<>(seats.values());
+        }
+
+        // 与上一次推送的座位比较，没有差异时返回null
+        SeatDeltaDTO apply(Long examId, List<SeatRowDTO> newSeats) {
+            Map<Integer, SeatRowDTO> next = toMap(newSeats);
+            List<SeatRowDTO> changed = new ArrayList<>();
+            for (SeatRowDTO seat : next.values()) {
+                SeatRowDTO previous = seats.get(seat.getSeatNumber());
+                if (previous == null || previous.isAvailable() != seat.isAvailable()
+                        || !Objects.equals(previous.getStudentName(), seat.getStudentName())) {
+                    changed.add(seat);
+                }
+            }
+            List<Integer> removed = new ArrayList<>();
+            for (Integer seatNumber : seats.keySet()) {
+                if (!next.containsKey(seatNumber)) {
+                    removed.add(seatNumber);
+                }
+            }
+            seats = next;
+            if (changed.isEmpty() && removed.isEmpty()) {
+                return null;
+            }
+            return new SeatDeltaDTO(examId, ++sequence, changed, removed);
+        }
+
+        private static Map<Integer, SeatRowDTO> toMap(List<SeatRowDTO> seats) {
+            Map<Integer, SeatRowDTO> map = new TreeMap<>();
+            for (SeatRowDTO seat : seats) {
+                if (seat.getSeatNumber() != null) {
+                    map.put(seat.getSeatNumber(), seat);
+                }
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.FrozenSeatChartDTO;
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.exception.BusinessException;
+import com.example.exam.model.Exam;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 座位表静态快照服务
+ * 考试开始前由管理员冻结考试：座位表页面和JSON各渲染一次，连同gzip压缩结果保存在内存中，
+ * 冻结期间的查询由 FrozenSeatChartFilter 直接返回快照，不再查询数据库，也不经过模板引擎。
+ * 冻结后座位或考试信息发生变更时快照立即失效（自动解除冻结），避免继续提供过期的座位表
+ */
+@Service
+public class SeatChartSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatChartSnapshotService.class);
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    // 考试ID -> 快照
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    // 考试ID -> 座位变更次数，用于发现渲染过程中发生的变更
+    private final Map<Long, Long> changeCounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ExamSlotIndex examSlotIndex;
+
+    @Autowired
+    private SeatQueryCache seatQueryCache;
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 冻结考试：渲染座位表页面和JSON并保存快照，已冻结时重新生成
+     * 页面中的链接需要根据当前请求生成，因此渲染使用发起冻结的请求
+     */
+    public FrozenSeatChartDTO freeze(Long examId, HttpServletRequest request, HttpServletResponse response) {
+        Exam exam = examSlotIndex.findById(examId)
+                .orElseThrow(() -> new BusinessException(404, "考试不存在"));
+        if (exam.getExamDate() == null || exam.getStartTime() == null || exam.getEndTime() == null) {
+            throw new BusinessException(400, "考试未设置日期或起止时间，无法冻结");
+        }
+        long changeCount = changeCounts.getOrDefault(examId, 0L);
+
+        List<SeatRowDTO> seats = seatQueryCache.getSeats(examId);
+        Map<String, Object> model = seatChartModel(exam, seats);
+        byte[] html = renderHtml(model, request, response);
+        byte[] json = renderJson(seatChartData(exam, seats));
+        Snapshot snapshot = new Snapshot(exam, LocalDateTime.now(),
+                new Body("text/html;charset=UTF-8", html), new Body("application/json", json));
+
+        synchronized (this) {
+            if (changeCounts.getOrDefault(examId, 0L) != changeCount) {
+                throw new BusinessException(409, "冻结过程中座位发生变更，请重试");
+            }
+            snapshots.put(examId, snapshot);
+        }
+        logger.info("考试 {} 已冻结，页面 {} 字节（gzip {} 字节），JSON {} 字节（gzip {} 字节）", examId,
+                html.length, snapshot.getHtml().getGzip().length, json.length, snapshot.getJson().getGzip().length);
+        return snapshot.toDTO();
+    }
+
+    /**
+     * 解除冻结
+     * @return 该考试此前是否已冻结
+     */
+    public boolean unfreeze(Long examId) {
+        return snapshots.remove(examId) != null;
+    }
+
+    public List<FrozenSeatChartDTO> getFrozenExams() {
+        List<FrozenSeatChartDTO> result = new ArrayList<>(snapshots.size());
+        for (Snapshot snapshot : snapshots.values()) {
+            result.add(snapshot.toDTO());
+        }
+        return result;
+    }
+
+    public boolean hasSnapshots() {
+        return !snapshots.isEmpty();
+    }
+
+    /**
+     * 按试室和时段查找已冻结考试的快照
+     */
+    public Optional<Snapshot> find(String room, LocalTime startTime, LocalTime endTime, LocalDate examDate) {
+        if (snapshots.isEmpty()) {
+            return Optional.empty();
+        }
+        return examSlotIndex.find(room, startTime, endTime, examDate)
+                .map(exam -> snapshots.get(exam.getId()));
+    }
+
+    /**
+     * 座位或考试信息变更后（事务提交后）使快照失效
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSeatsChanged(SeatsChangedEvent event) {
+        Long examId = event.getExam().getId();
+        if (event.isExamDeleted()) {
+            changeCounts.remove(examId);
+        } else {
+            changeCounts.merge(examId, 1L, Long::sum);
+        }
+        if (snapshots.remove(examId) != null) {
+            logger.warn("考试 {} 冻结后座位发生变更，已解除冻结，如需继续使用快照请重新冻结", examId);
+        }
+    }
+
+    /**
+     * 座位表页面的模型数据，与 /exam/seats 一致
+     */
+    public Map<String, Object> seatChartModel(Exam exam, List<SeatRowDTO> seats) {
+        Map<String, Object> model = new LinkedHashMap<>();
+        if (seats.isEmpty()) {
+            model.put("message", "该试室在指定时间内暂无考生信息！");
+        } else {
+            model.put("seats", seats);
+        }
+        model.put("room", exam.getRoom());
+        model.put("startEndTime", timeRange(exam));
+        model.put("subject", exam.getSubject());
+        model.put("examDate", exam.getExamDate());
+        return model;
+    }
+
+    /**
+     * 座位表JSON数据，与 /exam/seats/data 一致
+     */
+    public Map<String, Object> seatChartData(Exam exam, List<SeatRowDTO> seats) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("examId", exam.getId());
+        data.put("room", exam.getRoom());
+        data.put("subject", exam.getSubject());
+        data.put("examDate", exam.getExamDate() != null ? exam.getExamDate().toString() : null);
+        data.put("startEndTime", timeRange(exam));
+        data.put("seats", seats);
+        return data;
+    }
+
+    private static String timeRange(Exam exam) {
+        if (exam.getStartTime() == null || exam.getEndTime() == null) {
+            return exam.getStartEndTime();
+        }
+        return exam.getStartTime().format(TIME_FORMATTER) + " ~ " + exam.getEndTime().format(TIME_FORMATTER);
+    }
+
+    private byte[] renderHtml(Map<String, Object> model, HttpServletRequest request, HttpServletResponse response) {
+        WebContext context = new WebContext(
+                JakartaServletWebApplication.buildApplication(request.getServletContext()).buildExchange(request, response),
+                Locale.getDefault(), model);
+        return templateEngine.process("seats", context).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] renderJson(Map<String, Object> data) {
+        try {
+            return objectMapper.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(500, "座位表JSON生成失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 一场考试的座位表快照
+     */
+    public static class Snapshot {
+        private final Long examId;
+        private final String room;
+        private final String subject;
+        private final LocalDate examDate;
+        private final String startEndTime;
+        private final LocalDateTime frozenAt;
+        private final Body html;
+        private final Body json;
+
+        Snapshot(Exam exam, LocalDateTime frozenAt, Body html, Body json) {
+            this.examId = exam.getId();
+            this.room = exam.getRoom();
+            this.subject = exam.getSubject();
+            this.examDate = exam.getExamDate();
+            this.startEndTime = timeRange(exam);
+            this.frozenAt = frozenAt;
+            this.html = html;
+            this.json = json;
+        }
+
+        public Body getHtml() {
+            return html;
+        }
+
+        public Body getJson() {
+            return json;
+        }
+
+        FrozenSeatChartDTO toDTO() {
+            FrozenSeatChartDTO dto = new FrozenSeatChartDTO();
+            dto.setExamId(examId);
+            dto.setRoom(room);
+            dto.setSubject(subject);
+            dto.setExamDate(examDate);
+            dto.setStartEndTime(startEndTime);
+            dto.setFrozenAt(frozenAt);
+            dto.setHtmlBytes(html.getIdentity().length);
+            dto.setHtmlGzipBytes(html.getGzip().length);
+            dto.setJsonBytes(json.getIdentity().length);
+            dto.setJsonGzipBytes(json.getGzip().length);
+            return dto;
+        }
+    }
+
+    /**
+     * 快照中的一种内容，保存原文和gzip压缩结果；两种编码的内容不同，强ETag也不同
+     */
+    public static class Body {
+        private final String contentType;
+        private final byte[] identity;
+        private final byte[] gzip;
+        private final String etag;
+        private final String gzipEtag;
+
+        Body(String contentType, byte[] identity) {
+            this.contentType = contentType;
+            this.identity = identity;
+            this.gzip = gzip(identity);
+            String hash = sha256(identity);
+            this.etag = "\"" + hash + "\"";
+            this.gzipEtag = "\"" + hash + "-gzip\"";
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getIdentity() {
+            return identity;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getGzipEtag() {
+            return gzipEtag;
+        }
+
+        // 快照只压缩一次，使用最高压缩级别
+        private static byte[] gzip(byte[] data) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                gzip.write(data);
+            } catch (IOException e) {
+                throw new IllegalStateException("压缩座位表快照失败", e);
+            }
+            return out.toByteArray();
+        }
+
+        private static String sha256(byte[] data) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+                return HexFormat.of().formatHex(digest, 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.exam.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 座位导入任务
+ * 由导入线程更新进度，轮询接口读取，计数器和状态字段均可在线程间安全读取
+ */
+public class SeatImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+    private final Long examId;
+    private final String room;
+    private final LocalDate examDate;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final boolean replace;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicInteger rowsParsed = new AtomicInteger();
+    private final AtomicInteger rowsPersisted = new AtomicInteger();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile String message = "等待导入";
+    private volatile LocalDateTime finishedAt;
+
+    public SeatImportJob(String id, Long examId, String room, LocalDate examDate,
+                         LocalTime startTime, LocalTime endTime, boolean replace) {
+        this.id = id;
+        this.examId = examId;
+        this.room = room;
+        this.examDate = examDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.replace = replace;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+        message = "正在导入";
+    }
+
+    void succeed(String message) {
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.SUCCEEDED;
+    }
+
+    void fail(String message) {
+        // 入库在同一事务中完成，失败时已写入的行全部回滚
+        this.rowsPersisted.set(0);
+        this.errors.add(message);
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    void addRowsParsed(int count) {
+        rowsParsed.addAndGet(count);
+    }
+
+    void addError(String error) {
+        errors.add(error);
+    }
+
+    void addRowsPersisted(int count) {
+        rowsPersisted.addAndGet(count);
+    }
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getExamId() {
+        return examId;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public LocalDate getExamDate() {
+        return examDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public boolean isReplace() {
+        return replace;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public int getRowsPersisted() {
+        return rowsPersisted.get();
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
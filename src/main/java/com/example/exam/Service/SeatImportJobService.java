@@ -0,0 +1,147 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.StudentConflictReport;
+import com.example.exam.exception.BusinessException;
+import com.example.exam.exception.StudentConflictException;
+import com.example.exam.model.Exam;
+import com.example.exam.utils.ExcelUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 座位异步导入服务
+ * 上传文件先落盘到临时文件，请求线程立即返回任务ID，解析、校验和入库在有界线程池中完成
+ */
+@Service
+public class SeatImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatImportJobService.class);
+
+    private final Map<String, SeatImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private SeatImportMetrics seatImportMetrics;
+
+    @Autowired
+    private DashboardAggregates dashboardAggregates;
+
+    @Autowired
+    @Qualifier("seatImportExecutor")
+    private ThreadPoolTaskExecutor seatImportExecutor;
+
+    @Value("${exam.import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    /**
+     * 提交导入任务
+     * replace为true时替换考试的全部座位（对应 /exam/import-seats），
+     * 否则追加座位并校验座位号冲突（对应 /admin/upload-seat-chart）
+     */
+    public SeatImportJob submit(MultipartFile file, Exam exam, boolean replace) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(400, "Excel文件不能为空");
+        }
+        if (exam == null || exam.getId() == null) {
+            throw new BusinessException(400, "座位必须关联到考试信息");
+        }
+        evictFinishedJobs();
+
+        SeatImportJob job = new SeatImportJob(UUID.randomUUID().toString(), exam.getId(), exam.getRoom(),
+                exam.getExamDate(), exam.getStartTime(), exam.getEndTime(), replace);
+        synchronized (jobs) {
+            // 同一场考试同时只允许一个导入任务，避免两个任务交替删除和写入座位
+            for (SeatImportJob other : jobs.values()) {
+                if (!other.isFinished() && exam.getId().equals(other.getExamId())) {
+                    throw new BusinessException(409, "该考试已有正在进行的导入任务：" + other.getId());
+                }
+            }
+            jobs.put(job.getId(), job);
+        }
+
+        File tempFile;
+        try {
+            tempFile = ExcelUtils.spoolToTempFile(file);
+        } catch (IOException e) {
+            jobs.remove(job.getId());
+            throw new BusinessException(500, "Excel文件处理失败: " + e.getMessage());
+        }
+
+        dashboardAggregates.importStarted(job);
+        try {
+            seatImportExecutor.execute(() -> runJob(job, exam, tempFile));
+        } catch (TaskRejectedException e) {
+            dashboardAggregates.importFinished(job);
+            jobs.remove(job.getId());
+            tempFile.delete();
+            throw new BusinessException(503, "当前导入任务较多，请稍后再试");
+        }
+        return job;
+    }
+
+    // 查询导入任务
+    public Optional<SeatImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    // 获取全部未结束的导入任务
+    public List<SeatImportJob> getActiveJobs() {
+        return jobs.values().stream()
+                .filter(job -> !job.isFinished())
+                .collect(Collectors.toList());
+    }
+
+    private void runJob(SeatImportJob job, Exam exam, File file) {
+        job.start();
+        try {
+            // 与同步导入走同一条流式分块写入路径，每写入一块更新一次任务进度
+            int saved = seatService.importSeatsFromExcel(exam, file, job.isReplace(),
+                    job::addRowsParsed, job::addRowsPersisted);
+            seatImportMetrics.imported(SeatImportMetrics.SOURCE_JOB, saved);
+            job.succeed("成功导入 " + saved + " 条座位信息");
+        } catch (StudentConflictException e) {
+            // 逐个列出在时间重叠的其他考试中已有座位的学生
+            for (StudentConflictReport.Conflict conflict : e.getReport().getConflicts()) {
+                job.addError(conflict.getStudentName() + " 已安排在 " + conflict.getRoom() + " "
+                        + conflict.getExamDate() + " " + conflict.getStartTime() + "~" + conflict.getEndTime());
+            }
+            seatImportMetrics.rejected(SeatImportMetrics.SOURCE_JOB, job.getRowsParsed());
+            job.fail(e.getMessage());
+        } catch (BusinessException e) {
+            seatImportMetrics.rejected(SeatImportMetrics.SOURCE_JOB, job.getRowsParsed());
+            job.fail(e.getMessage());
+        } catch (Exception e) {
+            logger.error("座位导入任务 {} 失败", job.getId(), e);
+            seatImportMetrics.rejected(SeatImportMetrics.SOURCE_JOB, job.getRowsParsed());
+            job.fail("导入座位信息失败: " + e.getMessage());
+        } finally {
+            dashboardAggregates.importFinished(job);
+            file.delete();
+        }
+    }
+
+    // 清理超过保留时间的已结束任务
+    private void evictFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.exam.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 座位导入行数统计
+ * exam.import.rows 按导入方式（source）和结果（result）区分：imported 为写入数据库的行数，
+ * rejected 为已解析但因座位号或学生冲突等原因未能写入的行数
+ */
+@Component
+public class SeatImportMetrics {
+
+    public static final String SOURCE_UPLOAD = "upload";
+    public static final String SOURCE_IMPORT = "import";
+    public static final String SOURCE_JOB = "job";
+    public static final String SOURCE_WORKBOOK = "workbook";
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public SeatImportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void imported(String source, int rows) {
+        counter(source, "imported").increment(rows);
+    }
+
+    public void rejected(String source, int rows) {
+        counter(source, "rejected").increment(rows);
+    }
+
+    private Counter counter(String source, String result) {
+        return Counter.builder("exam.import.rows")
+                .description("导入的座位行数")
+                .tag("source", source)
+                .tag("result", result)
+                .register(registry);
+    }
+}
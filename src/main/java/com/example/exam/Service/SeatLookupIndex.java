@@ -0,0 +1,318 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatLocationDTO;
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.model.Exam;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 学生座位查询索引
+ * 按考试日期为全部已安排学生的座位建立姓名的单字和双字索引，支持按完整姓名、前缀或任意片段查询。
+ * 学生姓名多为2到3个汉字，三字片段无法覆盖两个字的查询，因此使用单字和双字片段。
+ * 每场考试的倒排表单独建立，日期索引由当天各考试的倒排表组成；两者都是不可变快照，查询无锁。
+ * 座位变更时只重新切分该考试的姓名，再替换所在日期索引中的这一场考试
+ */
+@Component
+public class SeatLookupIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatLookupIndex.class);
+
+    private static final String LOAD_SQL = "SELECT s.exam_id, s.seat_number, s.student_name, e.room, e.subject, e.exam_date, e.start_time, e.end_time "
+            + "FROM seat s JOIN exam e ON e.id = s.exam_id "
+            + "WHERE s.student_name IS NOT NULL AND s.student_name <> ''";
+
+    private final Map<LocalDate, DateIndex> indexesByDate = new ConcurrentHashMap<>();
+    // 考试ID -> 该考试的座位所在的日期索引，考试改期时据此从原日期移除，只在持有锁时修改
+    private final Map<Long, LocalDate> dateByExam = new HashMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 应用启动完成后从数据库加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        Map<Long, List<SeatLocationDTO>> loadedSeats = new HashMap<>();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            String name = normalizeName(rs.getString(3));
+            Date examDate = rs.getDate(6);
+            Time startTime = rs.getTime(7);
+            Time endTime = rs.getTime(8);
+            if (name == null || examDate == null) {
+                return;
+            }
+            long examId = rs.getLong(1);
+            Integer seatNumber = rs.getObject(2, Integer.class);
+            loadedSeats.computeIfAbsent(examId, id -> new ArrayList<>()).add(new SeatLocationDTO(
+                    name, examId, rs.getString(4), rs.getString(5), examDate.toLocalDate(),
+                    startTime != null ? startTime.toLocalTime() : null,
+                    endTime != null ? endTime.toLocalTime() : null,
+                    seatNumber));
+        });
+        Map<LocalDate, Map<Long, ExamIndex>> examsByDate = new HashMap<>();
+        loadedSeats.forEach((examId, seats) -> {
+            LocalDate examDate = seats.get(0).getExamDate();
+            examsByDate.computeIfAbsent(examDate, date -> new HashMap<>()).put(examId, new ExamIndex(seats));
+            dateByExam.put(examId, examDate);
+        });
+        examsByDate.forEach((examDate, exams) -> indexesByDate.put(examDate, new DateIndex(exams)));
+        loaded = true;
+        logger.info("学生座位查询索引加载完成，共 {} 个考试日期", indexesByDate.size());
+    }
+
+    /**
+     * 座位变更后（事务提交后）替换该考试在日期索引中的倒排表
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSeatsChanged(SeatsChangedEvent event) {
+        if (!loaded) {
+            // 尚未加载时变更已在数据库中，加载时会一并读取
+            return;
+        }
+        Exam exam = event.getExam();
+        List<SeatLocationDTO> seats = new ArrayList<>();
+        if (!event.isExamDeleted() && exam.getExamDate() != null) {
+            for (SeatRowDTO row : event.getSeats()) {
+                String name = normalizeName(row.getStudentName());
+                if (name != null) {
+                    seats.add(new SeatLocationDTO(name, exam.getId(), exam.getRoom(), exam.getSubject(),
+                            exam.getExamDate(), exam.getStartTime(), exam.getEndTime(), row.getSeatNumber()));
+                }
+            }
+        }
+        LocalDate previousDate = seats.isEmpty() ? dateByExam.remove(exam.getId())
+                : dateByExam.put(exam.getId(), exam.getExamDate());
+        if (previousDate != null && (seats.isEmpty() || !previousDate.equals(exam.getExamDate()))) {
+            // 考试改期或座位清空时从原日期移除
+            indexesByDate.computeIfPresent(previousDate, (date, index) -> index.without(exam.getId()));
+        }
+        if (!seats.isEmpty()) {
+            ExamIndex examIndex = new ExamIndex(seats);
+            indexesByDate.compute(exam.getExamDate(), (date, index) -> index != null
+                    ? index.with(exam.getId(), examIndex)
+                    : new DateIndex(Collections.singletonMap(exam.getId(), examIndex)));
+        }
+    }
+
+    /**
+     * 按姓名查询指定日期全部考试中的座位，完全匹配在前，其次为前缀匹配，最后为包含匹配
+     * @param limit 最多返回的条数
+     */
+    public List<SeatLocationDTO> search(LocalDate examDate, String query, int limit) {
+        String key = normalizeKey(query);
+        if (key == null || examDate == null) {
+            return Collections.emptyList();
+        }
+        if (!loaded) {
+            load();
+        }
+        DateIndex index = indexesByDate.get(examDate);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        return index.search(key, limit);
+    }
+
+    private static String normalizeName(String studentName) {
+        if (studentName == null) {
+            return null;
+        }
+        String name = studentName.trim();
+        return name.isEmpty() ? null : name;
+    }
+
+    private static String normalizeKey(String studentName) {
+        String name = normalizeName(studentName);
+        return name != null ? name.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * 单个日期的不可变索引：当天各考试的倒排表，按考试ID排序，查询结果的顺序稳定。
+     * 修改时复制考试表并替换其中一场考试，其他考试的倒排表直接复用；没有考试时返回null
+     */
+    static final class DateIndex {
+        private final Map<Long, ExamIndex> exams;
+
+        DateIndex(Map<Long, ExamIndex> exams) {
+            this.exams = Collections.unmodifiableMap(new TreeMap<>(exams));
+        }
+
+        DateIndex with(Long examId, ExamIndex examIndex) {
+            Map<Long, ExamIndex> next = new TreeMap<>(exams);
+            next.put(examId, examIndex);
+            return new DateIndex(next);
+        }
+
+        DateIndex without(Long examId) {
+            if (!exams.containsKey(examId)) {
+                return this;
+            }
+            Map<Long, ExamIndex> next = new TreeMap<>(exams);
+            next.remove(examId);
+            return next.isEmpty() ? null : new DateIndex(next);
+        }
+
+        List<SeatLocationDTO> search(String key, int limit) {
+            // 按匹配程度分三档：完全匹配、前缀匹配、包含匹配，每档最多保留limit条；
+            // 完全匹配已满limit条时后面的考试不会再进入结果，直接停止
+            List<SeatLocationDTO> exact = new ArrayList<>();
+            List<SeatLocationDTO> prefix = new ArrayList<>();
+            List<SeatLocationDTO> contains = new ArrayList<>();
+            for (ExamIndex exam : exams.values()) {
+                if (exact.size() >= limit) {
+                    break;
+                }
+                exam.match(key, limit, exact, prefix, contains);
+            }
+            List<SeatLocationDTO> result = new ArrayList<>(Math.min(limit, exact.size() + prefix.size() + contains.size()));
+            addAll(result, exact, limit);
+            addAll(result, prefix, limit);
+            addAll(result, contains, limit);
+            return result;
+        }
+
+        private static void addAll(List<SeatLocationDTO> result, List<SeatLocationDTO> matches, int limit) {
+            for (SeatLocationDTO match : matches) {
+                if (result.size() >= limit) {
+                    return;
+                }
+                result.add(match);
+            }
+        }
+    }
+
+    /**
+     * 单场考试的不可变索引：姓名片段到座位下标的有序倒排表
+     */
+    static final class ExamIndex {
+        private final SeatLocationDTO[] seats;
+        private final String[] keys;
+        private final Map<String, int[]> postings;
+
+        ExamIndex(List<SeatLocationDTO> seatList) {
+            seats = seatList.toArray(new SeatLocationDTO[0]);
+            keys = new String[seats.length];
+            for (int i = 0; i < seats.length; i++) {
+                keys[i] = normalizeKey(seats[i].getStudentName());
+            }
+
+            // 第一遍统计每个片段的出现次数，第二遍填充倒排表，下标按升序写入
+            Map<String, int[]> counts = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                forEachGram(keys[i], gram -> counts.computeIfAbsent(gram, g -> new int[2])[0]++);
+            }
+            postings = new HashMap<>(counts.size() * 2);
+            for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+                postings.put(entry.getKey(), new int[entry.getValue()[0]]);
+            }
+            for (int i = 0; i < keys.length; i++) {
+                int seat = i;
+                forEachGram(keys[i], gram -> {
+                    int[] fill = counts.get(gram);
+                    postings.get(gram)[fill[1]++] = seat;
+                });
+            }
+        }
+
+        // 按匹配程度把匹配的座位分别加入三档结果，每档最多limit条，完全匹配满limit条时停止
+        void match(String key, int limit, List<SeatLocationDTO> exact, List<SeatLocationDTO> prefix,
+                   List<SeatLocationDTO> contains) {
+            int[] candidates = candidates(key);
+            if (candidates == null) {
+                return;
+            }
+            for (int seat : candidates) {
+                if (exact.size() >= limit) {
+                    return;
+                }
+                String name = keys[seat];
+                if (name.equals(key)) {
+                    exact.add(seats[seat]);
+                } else if (name.startsWith(key)) {
+                    if (prefix.size() < limit) {
+                        prefix.add(seats[seat]);
+                    }
+                } else if (contains.size() < limit && name.contains(key)) {
+                    contains.add(seats[seat]);
+                }
+            }
+        }
+
+        // 查询串的全部双字片段倒排表求交集；单个字符直接使用单字倒排表
+        private int[] candidates(String key) {
+            if (key.length() == 1) {
+                return postings.get(key);
+            }
+            int[] result = null;
+            for (int i = 0; i + 2 <= key.length(); i++) {
+                int[] list = postings.get(key.substring(i, i + 2));
+                if (list == null) {
+                    return null;
+                }
+                result = result == null ? list : intersect(result, list);
+                if (result.length == 0) {
+                    return null;
+                }
+            }
+            return result;
+        }
+
+        // 枚举姓名中不重复的单字和双字片段
+        private static void forEachGram(String key, Consumer<String> consumer) {
+            Set<String> grams = new HashSet<>();
+            for (int i = 0; i < key.length(); i++) {
+                grams.add(key.substring(i, i + 1));
+                if (i + 2 <= key.length()) {
+                    grams.add(key.substring(i, i + 2));
+                }
+            }
+            grams.forEach(consumer);
+        }
+    }
+
+    // 两个升序下标数组的交集
+    static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+}
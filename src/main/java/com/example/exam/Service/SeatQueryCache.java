@@ -0,0 +1,78 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.respository.SeatRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 考试座位只读缓存
+ * 考试当天大量学生同时查询同一试室的座位表，按考试ID缓存座位行，
+ * 同一考试的并发未命中只触发一次数据库查询，其他请求等待该次加载的结果。
+ * 按条目数限制容量，淘汰策略为Caffeine的W-TinyLFU，偶尔被查询的历史考试不会挤掉正在进行的考试。
+ * 座位变更和考试删除事件（事务提交后）移除对应条目，下次查询时重新加载已提交的座位。
+ * 命中率、加载耗时和淘汰数以 cache=seatGrid 暴露为监控指标
+ */
+@Component
+public class SeatQueryCache implements MeterBinder {
+
+    private final LoadingCache<Long, List<SeatRowDTO>> cache;
+
+    @Autowired
+    public SeatQueryCache(SeatRepository seatRepository,
+                          @Value("${exam.seat-cache.max-size:2000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(examId -> Collections.unmodifiableList(seatRepository.findSeatRowsByExamId(examId)));
+    }
+
+    /**
+     * 获取考试的全部座位，未命中时从数据库加载
+     */
+    public List<SeatRowDTO> getSeats(Long examId) {
+        return cache.get(examId);
+    }
+
+    /**
+     * 座位变更后移除缓存
+     * 事件中的座位行在各自事务提交前读取，并发修改同一考试时事件的先后顺序不一定与提交顺序一致，
+     * 直接写入可能用较旧的座位覆盖较新的座位，因此只移除条目，由下次查询重新加载
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsChanged(SeatsChangedEvent event) {
+        cache.invalidate(event.getExam().getId());
+    }
+
+    public void invalidate(Long examId) {
+        cache.invalidate(examId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "seatGrid");
+    }
+}
@@ -1,36 +1,84 @@
 package com.example.exam.Service;
 
+import com.example.exam.DTO.SeatAllocationRequestDTO;
+import com.example.exam.DTO.SeatAllocationResultDTO;
+import com.example.exam.DTO.SeatConflictReport;
 import com.example.exam.DTO.SeatDTO;
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.DTO.StudentConflictReport;
+import com.example.exam.DTO.StudentDTO;
 import com.example.exam.exception.BusinessException;
+import com.example.exam.exception.StudentConflictException;
 import com.example.exam.model.Exam;
 import com.example.exam.model.Seat;
-import com.example.exam.respository.ExamRepository;
+import com.example.exam.respository.SeatJdbcRepository;
 import com.example.exam.respository.SeatRepository;
 import com.example.exam.utils.ExcelUtils;
+import com.example.exam.utils.SeatAllocator;
+import com.example.exam.utils.SeatNumberSet;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 @Service
 public class SeatService {
 
+    // 流式导入时每块写入的座位数
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
     @Autowired
     private SeatRepository seatRepository;
     
     @Autowired
-    private ExamRepository examRepository;
+    private ExamSlotIndex examSlotIndex;
+
+    @Autowired
+    private SeatJdbcRepository seatJdbcRepository;
+
+    @Autowired
+    private StudentBookingIndex studentBookingIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SeatQueryCache seatQueryCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 是否检查学生在时间重叠的其他考试中已有座位
+    @Value("${exam.conflict-check.enabled:true}")
+    private boolean conflictCheckEnabled;
 
     // 根据房间号、起止时间、日期和科目获取座位列表
-    public List<Seat> getSeatsByRoom(String room, LocalTime startTime, LocalTime endTime, LocalDate examDate, String subject) {
+    @Timed("exam.seats.query")
+    public List<SeatRowDTO> getSeatsByRoom(String room, LocalTime startTime, LocalTime endTime, LocalDate examDate, String subject) {
         if (room == null || room.isEmpty()) {
             throw new BusinessException(400, "试室号不能为空");
         }
@@ -42,20 +90,22 @@ public class SeatService {
         }
         
         // 首先尝试根据考试信息查找
-        Optional<Exam> examOpt = examRepository.findByRoomAndStartTimeAndEndTimeAndExamDate(room, startTime, endTime, examDate);
+        Optional<Exam> examOpt = examSlotIndex.find(room, startTime, endTime, examDate);
         if (examOpt.isPresent()) {
-            // 如果找到考试信息，直接返回该考试的座位
-            return seatRepository.findByExam(examOpt.get());
+            // 如果找到考试信息，直接返回该考试的座位（经缓存）
+            return seatQueryCache.getSeats(examOpt.get().getId());
         } else {
             // 如果没有找到考试信息，尝试使用原来的查询方法（向后兼容）
             if (subject == null || subject.isEmpty()) {
                 throw new BusinessException(400, "考试科目不能为空");
             }
-            return seatRepository.findByExamRoomAndTimeAndDate(room, startTime, endTime, examDate, subject);
+            return seatRepository.findSeatRowsByExamRoomAndTimeAndDate(room, startTime, endTime, examDate, subject);
         }
     }
 
     // 手动编排座位
+    @Timed("exam.seats.manual")
+    @Transactional
     public void manualSeatArrangement(String room, Map<String, String> seatAssignments) {
         if (room == null || room.isEmpty()) {
             throw new BusinessException(400, "试室号不能为空");
@@ -64,12 +114,15 @@ public class SeatService {
             throw new BusinessException(400, "座位分配信息不能为空");
         }
         
+        Map<Long, Exam> changedExams = new LinkedHashMap<>();
         for (Map.Entry<String, String> entry : seatAssignments.entrySet()) {
             try {
                 // 查找座位
                 int seatNumber = Integer.parseInt(entry.getKey());
-                Seat seat = seatRepository.findByExamRoomAndSeatNumber(room, seatNumber);
+                Seat seat = seatRepository.findWithExamByRoomAndSeatNumber(room, seatNumber);
                 if (seat != null) {
+                    checkStudentConflicts(seat.getExam(), Collections.singletonList(entry.getValue()), Collections.singleton(seat.getExam().getId()));
+                    changedExams.put(seat.getExam().getId(), seat.getExam());
                     seat.setStudentName(entry.getValue().trim());  // 设置学生姓名
                     seat.setAvailable(entry.getValue().isEmpty()); // 如果姓名为空，设置为可用
                     seatRepository.save(seat);  // 保存座位
@@ -80,31 +133,61 @@ public class SeatService {
                 throw new BusinessException(400, "座位号格式不正确: " + entry.getKey());
             }
         }
+        seatRepository.flush();
+        changedExams.values().forEach(this::publishSeatsChanged);
     }
 
-    // 解析Excel文件
-    public List<SeatDTO> parseExcel(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new BusinessException(400, "Excel文件不能为空");
-        }
-        
+    // 流式解析已落盘的Excel文件，同步导入和异步导入任务都经过这里，在方法内计时（自调用不经过@Timed代理）
+    private int parseExcel(File file, Consumer<SeatDTO> consumer) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            List<SeatDTO> seats = ExcelUtils.importSeatsFromExcel(file);
-            if (seats.isEmpty()) {
+            int count = ExcelUtils.streamSeatsFromExcel(file, consumer);
+            if (count == 0) {
                 throw new BusinessException(400, "Excel文件中没有有效的座位数据");
             }
-            return seats;
+            return count;
         } catch (IOException e) {
             throw new BusinessException(500, "Excel文件处理失败: " + e.getMessage());
         } catch (BusinessException e) {
             throw e; // 直接抛出业务异常
         } catch (Exception e) {
             throw new BusinessException(500, "解析Excel文件失败: " + e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("exam.import.parse"));
+        }
+    }
+
+    // 将上传文件落盘，调用方负责删除
+    private static File spoolToTempFile(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(400, "Excel文件不能为空");
+        }
+        try {
+            return ExcelUtils.spoolToTempFile(file);
+        } catch (IOException e) {
+            throw new BusinessException(500, "Excel文件处理失败: " + e.getMessage());
         }
     }
 
-    // 导出座位信息到Excel
-    public ByteArrayInputStream exportSeatsToExcel(String room, LocalTime startTime, LocalTime endTime, LocalDate examDate) {
+    // 以流式方式导出座位信息到Excel，校验和查询在返回前完成，文件内容在写响应时直接写入输出流。
+    // exam.seats.export 记录查找考试和查询座位的耗时，写响应的耗时单独记录在 exam.seats.export.stream
+    @Timed("exam.seats.export")
+    public StreamingResponseBody streamSeatsToExcel(String room, LocalTime startTime, LocalTime endTime, LocalDate examDate) {
+        Exam exam = getExamForExport(room, startTime, endTime, examDate);
+        List<SeatRowDTO> seats = getSeatsForExport(exam);
+        
+        Timer timer = meterRegistry.timer("exam.seats.export.stream");
+        return out -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                ExcelUtils.writeSeatsToExcel(seats, exam, out);
+            } finally {
+                sample.stop(timer);
+            }
+        };
+    }
+
+    private Exam getExamForExport(String room, LocalTime startTime, LocalTime endTime, LocalDate examDate) {
         if (room == null || room.isEmpty()) {
             throw new BusinessException(400, "试室号不能为空");
         }
@@ -116,23 +199,318 @@ public class SeatService {
         }
         
         // 获取考试信息
-        Optional<Exam> examOpt = examRepository.findByRoomAndStartTimeAndEndTimeAndExamDate(room, startTime, endTime, examDate);
+        Optional<Exam> examOpt = examSlotIndex.find(room, startTime, endTime, examDate);
         if (!examOpt.isPresent()) {
             throw new BusinessException(404, "未找到对应的考试信息");
         }
         
-        Exam exam = examOpt.get();
-        
+        return examOpt.get();
+    }
+
+    private List<SeatRowDTO> getSeatsForExport(Exam exam) {
         // 获取座位信息
-        List<Seat> seats = seatRepository.findByExam(exam);
+        List<SeatRowDTO> seats = seatRepository.findSeatRowsByExamId(exam.getId());
         if (seats.isEmpty()) {
             throw new BusinessException(404, "该考试没有座位信息");
         }
-        
+        return seats;
+    }
+
+    // 批量保存座位，通过JDBC批处理写入，避免IDENTITY主键导致的逐行INSERT
+    @Transactional
+    public int saveSeatsInBatch(Exam exam, List<Seat> seats) {
+        if (exam == null || exam.getId() == null) {
+            throw new BusinessException(400, "座位必须关联到考试信息");
+        }
+        checkStudentConflicts(exam, studentNames(seats), Collections.singleton(exam.getId()));
+        int saved = insertSeats(exam, seats);
+        publishSeatsChanged(exam);
+        return saved;
+    }
+
+    // 替换考试的全部座位：删除已有座位后批量写入新座位，在同一事务中完成
+    @Transactional
+    public int replaceSeats(Exam exam, List<Seat> seats) {
+        if (exam == null || exam.getId() == null) {
+            throw new BusinessException(400, "座位必须关联到考试信息");
+        }
+        return replaceSeats(exam, seats, Collections.singleton(exam.getId()));
+    }
+
+    // 替换考试的全部座位，excludedExamIds中的考试不参与学生冲突检查（例如整场重新排座时同一时段的全部试室）
+    @Transactional
+    public int replaceSeats(Exam exam, List<Seat> seats, Collection<Long> excludedExamIds) {
+        if (exam == null || exam.getId() == null) {
+            throw new BusinessException(400, "座位必须关联到考试信息");
+        }
+        checkStudentConflicts(exam, studentNames(seats), excludedExamIds);
+        seatRepository.deleteByExamId(exam.getId());
+        int saved = insertSeats(exam, seats);
+        publishSeatsChanged(exam);
+        return saved;
+    }
+
+    // 整场排座时替换多个考试的座位，全部在同一事务中完成，任一试室写入失败时全部回滚
+    @Transactional
+    public void replaceSessionSeats(List<Exam> exams, List<List<Seat>> roomSeats, Collection<Long> excludedExamIds) {
+        for (int i = 0; i < exams.size(); i++) {
+            try {
+                replaceSeats(exams.get(i), roomSeats.get(i), excludedExamIds);
+            } catch (BusinessException e) {
+                throw new BusinessException(e.getCode(), "试室 " + exams.get(i).getRoom() + " 写入失败，未写入任何座位：" + e.getMessage());
+            }
+        }
+    }
+
+    // 导入上传的Excel座位表，文件落盘后按下面的方法流式导入
+    @Transactional
+    public int importSeatsFromExcel(Exam exam, MultipartFile file, boolean replace, IntConsumer rowsParsed) {
+        File tempFile = spoolToTempFile(file);
         try {
-            return ExcelUtils.exportSeatsToExcel(seats, exam);
-        } catch (IOException e) {
-            throw new BusinessException(500, "导出Excel文件失败: " + e.getMessage());
+            return importSeatsFromExcel(exam, tempFile, replace, rowsParsed, count -> { });
+        } finally {
+            tempFile.delete();
+        }
+    }
+
+    // 边解析Excel边分块写入座位，内存中只保留当前一块座位和已出现的座位号；全部在同一事务中完成，任一环节失败时已写入的块一并回滚。
+    // replace为true时先删除已有座位并沿用表格中的可用状态，否则座位号不能与已有座位重复、可用状态由姓名是否为空决定。
+    // 每解析出一行回调一次rowsParsed，每写入一块回调一次rowsPersisted
+    @Transactional
+    public int importSeatsFromExcel(Exam exam, File file, boolean replace, IntConsumer rowsParsed, IntConsumer rowsPersisted) {
+        if (exam == null || exam.getId() == null) {
+            throw new BusinessException(400, "座位必须关联到考试信息");
+        }
+        Collection<Integer> existingNumbers = replace
+                ? Collections.emptyList()
+                : seatRepository.findSeatNumbersByExamId(exam.getId());
+        if (replace) {
+            seatRepository.deleteByExamId(exam.getId());
+        }
+        ChunkedSeatImport seatImport = new ChunkedSeatImport(exam, replace, existingNumbers, rowsParsed, rowsPersisted);
+        parseExcel(file, seatImport);
+        int saved = seatImport.finish();
+        publishSeatsChanged(exam);
+        return saved;
+    }
+
+    private int insertSeats(Exam exam, List<Seat> seats) {
+        try {
+            return seatJdbcRepository.batchInsert(exam.getId(), seats);
+        } catch (DuplicateKeyException e) {
+            // 数据库唯一约束兜底，防止并发保存写入重复座位号
+            throw new BusinessException(409, "座位号已存在于该房间中，请刷新后再试");
+        } catch (Exception e) {
+            throw new BusinessException(500, "保存座位信息失败: " + e.getMessage());
+        }
+    }
+
+    // 查找学生在同一日期、时间重叠的其他考试中已有的座位
+    public StudentConflictReport findStudentConflicts(Exam exam, Collection<String> studentNames, Collection<Long> excludedExamIds) {
+        StudentConflictReport report = new StudentConflictReport();
+        if (!conflictCheckEnabled || exam == null) {
+            return report;
+        }
+        Set<String> checked = new HashSet<>();
+        for (String name : studentNames) {
+            if (name == null || name.trim().isEmpty() || !checked.add(name.trim())) {
+                continue;
+            }
+            studentBookingIndex.findOverlap(name, exam.getExamDate(), exam.getStartTime(), exam.getEndTime(), excludedExamIds)
+                    .ifPresent(booking -> report.add(name.trim(), booking.getExamId(), booking.getRoom(), booking.getSubject(),
+                            booking.getExamDate(), booking.getStartTime(), booking.getEndTime()));
+        }
+        return report;
+    }
+
+    // 检查学生冲突，存在冲突时抛出包含冲突学生的业务异常
+    private void checkStudentConflicts(Exam exam, Collection<String> studentNames, Collection<Long> excludedExamIds) {
+        StudentConflictReport report = findStudentConflicts(exam, studentNames, excludedExamIds);
+        if (report.hasConflicts()) {
+            throw new StudentConflictException(report);
+        }
+    }
+
+    private static List<String> studentNames(List<Seat> seats) {
+        List<String> names = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            names.add(seat.getStudentName());
+        }
+        return names;
+    }
+
+    // 发布座位变更事件，携带该考试当前的全部座位
+    private void publishSeatsChanged(Exam exam) {
+        if (exam == null || exam.getId() == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new SeatsChangedEvent(exam, seatRepository.findSeatRowsByExamId(exam.getId())));
+    }
+
+    // 自动排座：按试室布局和约束为学生分配座位，结果替换该考试的全部座位
+    @Transactional
+    public SeatAllocationResultDTO autoArrangeSeats(Long examId, SeatAllocationRequestDTO request) {
+        if (examId == null) {
+            throw new BusinessException(400, "考试ID不能为空");
+        }
+        Exam exam = examSlotIndex.findById(examId)
+                .orElseThrow(() -> new BusinessException(404, "考试信息不存在"));
+
+        long start = System.nanoTime();
+        List<Seat> seats = allocateSeats(exam, request, request.getStudents());
+        SeatAllocationResultDTO result = toAllocationResult(exam, seats);
+        replaceSeats(exam, seats);
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    // 求解排座并生成座位实体，未分配学生的座位为可用空座，不可用座位标记为不可用且无学生
+    List<Seat> allocateSeats(Exam exam, SeatAllocationRequestDTO request, List<StudentDTO> students) {
+        int rows = request.getRows();
+        int cols = request.getCols();
+        int seatCount = layoutSeatCount(request);
+        if (students == null || students.isEmpty()) {
+            throw new BusinessException(400, "学生名单不能为空");
+        }
+
+        boolean[] blocked = blockedSeats(request);
+        int capacity = seatCapacity(request);
+        if (students.size() > capacity) {
+            throw new BusinessException(400, "学生人数 " + students.size() + " 超过试室可用座位数 " + capacity);
+        }
+
+        // 班级和科目转换为从0开始的编号
+        int[] studentClass = new int[students.size()];
+        int[] studentSubject = new int[students.size()];
+        Map<String, Integer> classIds = new HashMap<>();
+        Map<String, Integer> subjectIds = new HashMap<>();
+        for (int i = 0; i < students.size(); i++) {
+            StudentDTO student = students.get(i);
+            if (student == null || student.getName() == null || student.getName().trim().isEmpty()) {
+                throw new BusinessException(400, "第 " + (i + 1) + " 名学生的姓名不能为空");
+            }
+            studentClass[i] = classIds.computeIfAbsent(String.valueOf(student.getClassName()), key -> classIds.size());
+            studentSubject[i] = subjectIds.computeIfAbsent(String.valueOf(student.getSubject()), key -> subjectIds.size());
+        }
+
+        int[] seatStudent = SeatAllocator.allocate(rows, cols, blocked, request.getMaxSeats(),
+                studentClass, studentSubject, request.getMinClassDistance(), request.isAlternateSubjects());
+        int assigned = SeatAllocator.countAssigned(seatStudent);
+        if (assigned < students.size()) {
+            throw new BusinessException(400, "约束条件过严，有 " + (students.size() - assigned) + " 名学生无法分配座位，请放宽同班间距或科目交替要求");
+        }
+
+        List<Seat> seats = new ArrayList<>(seatCount);
+        for (int i = 0; i < seatCount; i++) {
+            Seat seat = new Seat();
+            seat.setSeatNumber(i + 1);
+            seat.setExam(exam);
+            if (seatStudent[i] >= 0) {
+                seat.setStudentName(students.get(seatStudent[i]).getName().trim());
+                seat.setAvailable(false);
+            } else {
+                seat.setAvailable(seatStudent[i] == SeatAllocator.EMPTY);
+            }
+            seats.add(seat);
+        }
+        return seats;
+    }
+
+    // 计算布局中可安排学生的座位数：去掉不可用座位，并受座位上限限制
+    int seatCapacity(SeatAllocationRequestDTO layout) {
+        if (layout.getRows() <= 0 || layout.getCols() <= 0) {
+            return 0;
+        }
+        int usable = 0;
+        for (boolean blocked : blockedSeats(layout)) {
+            if (!blocked) {
+                usable++;
+            }
+        }
+        return layout.getMaxSeats() > 0 ? Math.min(usable, layout.getMaxSeats()) : usable;
+    }
+
+    boolean[] blockedSeats(SeatAllocationRequestDTO layout) {
+        int seatCount = layoutSeatCount(layout);
+        boolean[] blocked = new boolean[seatCount];
+        if (layout.getBlockedSeats() != null) {
+            for (Integer number : layout.getBlockedSeats()) {
+                if (number != null && number >= 1 && number <= seatCount) {
+                    blocked[number - 1] = true;
+                }
+            }
+        }
+        return blocked;
+    }
+
+    // 布局的座位数，行列不合法或座位数超过上限时返回400，避免按请求中的行列分配过大的数组
+    private static int layoutSeatCount(SeatAllocationRequestDTO layout) {
+        if (layout.getRows() <= 0 || layout.getCols() <= 0) {
+            throw new BusinessException(400, "试室的行数和列数必须大于0");
+        }
+        try {
+            return SeatAllocator.seatCount(layout.getRows(), layout.getCols());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(400, "试室座位数不能超过 " + SeatAllocator.MAX_SEATS + " 个");
+        }
+    }
+
+    SeatAllocationResultDTO toAllocationResult(Exam exam, List<Seat> seats) {
+        SeatAllocationResultDTO result = new SeatAllocationResultDTO(exam.getId(), exam.getRoom());
+        int assigned = 0;
+        int empty = 0;
+        for (Seat seat : seats) {
+            if (seat.getStudentName() != null) {
+                assigned++;
+            } else if (seat.isAvailable()) {
+                empty++;
+            }
+        }
+        result.setTotalSeats(seats.size());
+        result.setAssignedSeats(assigned);
+        result.setEmptySeats(empty);
+        return result;
+    }
+
+    // 查找座位号冲突：一次遍历同时找出批次内重复的座位号和该考试中已存在的座位号
+    public SeatConflictReport findSeatConflicts(Exam exam, List<Integer> seatNumbers) {
+        Collection<Integer> existingNumbers = exam.getId() != null
+                ? seatRepository.findSeatNumbersByExamId(exam.getId())
+                : Collections.emptyList();
+        return findSeatConflicts(existingNumbers, seatNumbers);
+    }
+
+    // 比较待写入的座位号和已存在的座位号，不访问数据库
+    public static SeatConflictReport findSeatConflicts(Collection<Integer> existingNumbers, List<Integer> seatNumbers) {
+        SeatConflictReport report = new SeatConflictReport();
+
+        SeatNumberSet existing = new SeatNumberSet();
+        for (Integer number : existingNumbers) {
+            if (number != null) {
+                existing.add(number);
+            }
+        }
+        
+        SeatNumberSet seen = new SeatNumberSet();
+        for (Integer number : seatNumbers) {
+            if (number == null) {
+                report.addMissing();
+                continue;
+            }
+            if (!seen.add(number)) {
+                report.addDuplicate(number);
+            } else if (existing.contains(number)) {
+                report.addExisting(number);
+            }
+        }
+        return report;
+    }
+
+    // 校验座位号，存在冲突时抛出包含全部冲突座位号的业务异常
+    public void validateSeatNumbers(Exam exam, List<Integer> seatNumbers, String action) {
+        SeatConflictReport report = findSeatConflicts(exam, seatNumbers);
+        if (report.hasConflicts()) {
+            throw new BusinessException(400, report.toMessage(action));
         }
     }
 
@@ -147,10 +525,101 @@ public class SeatService {
         if (seat.getExam() == null) {
             throw new BusinessException(400, "座位必须关联到考试信息");
         }
+        checkStudentConflicts(seat.getExam(), Collections.singletonList(seat.getStudentName()), Collections.singleton(seat.getExam().getId()));
         try {
-            seatRepository.save(seat);
+            seatRepository.saveAndFlush(seat);
         } catch (Exception e) {
             throw new BusinessException(500, "保存座位信息失败: " + e.getMessage());
         }
+        publishSeatsChanged(seat.getExam());
+    }
+
+    /**
+     * 流式导入的行处理器：每凑满一块就检查座位号和学生冲突后批量写入。
+     * 发现冲突后不再写入，但继续解析剩余的行，最后一次报告全部冲突
+     */
+    private class ChunkedSeatImport implements Consumer<SeatDTO> {
+        private final Exam exam;
+        private final boolean replace;
+        private final Collection<Integer> existingNumbers;
+        private final IntConsumer rowsParsed;
+        private final IntConsumer rowsPersisted;
+        private final List<Integer> seatNumbers = new ArrayList<>();
+        // 已存在和已解析的座位号
+        private final SeatNumberSet taken = new SeatNumberSet();
+        private final StudentConflictReport studentConflicts = new StudentConflictReport();
+        private final Set<String> conflictingStudents = new HashSet<>();
+        private final List<Seat> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        private boolean rejected;
+        private int saved;
+
+        ChunkedSeatImport(Exam exam, boolean replace, Collection<Integer> existingNumbers,
+                          IntConsumer rowsParsed, IntConsumer rowsPersisted) {
+            this.exam = exam;
+            this.replace = replace;
+            this.existingNumbers = existingNumbers;
+            this.rowsParsed = rowsParsed;
+            this.rowsPersisted = rowsPersisted;
+            for (Integer number : existingNumbers) {
+                if (number != null) {
+                    taken.add(number);
+                }
+            }
+        }
+
+        @Override
+        public void accept(SeatDTO dto) {
+            rowsParsed.accept(1);
+            seatNumbers.add(dto.getSeatNumber());
+            if (!taken.add(dto.getSeatNumber())) {
+                rejected = true;
+            }
+            Seat seat = new Seat();
+            seat.setSeatNumber(dto.getSeatNumber());
+            seat.setStudentName(dto.getStudentName());
+            if (replace) {
+                seat.setAvailable(dto.isAvailable());
+            } else {
+                seat.setAvailable(dto.getStudentName() == null || dto.getStudentName().isEmpty());
+            }
+            seat.setExam(exam);
+            chunk.add(seat);
+            if (chunk.size() >= IMPORT_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        // 写入剩余的行，存在冲突时抛出业务异常，返回写入的座位数
+        int finish() {
+            flush();
+            SeatConflictReport numberConflicts = findSeatConflicts(existingNumbers, seatNumbers);
+            if (numberConflicts.hasConflicts()) {
+                throw new BusinessException(400, numberConflicts.toMessage("导入"));
+            }
+            if (studentConflicts.hasConflicts()) {
+                throw new StudentConflictException(studentConflicts);
+            }
+            return saved;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            StudentConflictReport report = findStudentConflicts(exam, studentNames(chunk), Collections.singleton(exam.getId()));
+            for (StudentConflictReport.Conflict conflict : report.getConflicts()) {
+                if (conflictingStudents.add(conflict.getStudentName())) {
+                    studentConflicts.add(conflict.getStudentName(), conflict.getExamId(), conflict.getRoom(), conflict.getSubject(),
+                            conflict.getExamDate(), conflict.getStartTime(), conflict.getEndTime());
+                }
+                rejected = true;
+            }
+            if (!rejected) {
+                int count = insertSeats(exam, chunk);
+                saved += count;
+                rowsPersisted.accept(count);
+            }
+            chunk.clear();
+        }
     }
-}
\ No newline at end of file
+}
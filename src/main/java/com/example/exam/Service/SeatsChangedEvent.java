@@ -0,0 +1,45 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.model.Exam;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 考试座位变更事件
+ * 座位写入、考试修改或删除后发布，携带该考试变更后的全部座位，
+ * 内存索引和缓存据此增量更新，无需再查询数据库。考试删除时座位列表为空
+ */
+public class SeatsChangedEvent {
+
+    private final Exam exam;
+    private final List<SeatRowDTO> seats;
+    private final boolean examDeleted;
+
+    public SeatsChangedEvent(Exam exam, List<SeatRowDTO> seats) {
+        this(exam, seats, false);
+    }
+
+    private SeatsChangedEvent(Exam exam, List<SeatRowDTO> seats, boolean examDeleted) {
+        this.exam = exam;
+        this.seats = Collections.unmodifiableList(seats);
+        this.examDeleted = examDeleted;
+    }
+
+    public static SeatsChangedEvent examDeleted(Exam exam) {
+        return new SeatsChangedEvent(exam, Collections.emptyList(), true);
+    }
+
+    public Exam getExam() {
+        return exam;
+    }
+
+    public List<SeatRowDTO> getSeats() {
+        return seats;
+    }
+
+    public boolean isExamDeleted() {
+        return examDeleted;
+    }
+}
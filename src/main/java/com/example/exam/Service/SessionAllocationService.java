@@ -0,0 +1,198 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatAllocationRequestDTO;
+import com.example.exam.DTO.SessionAllocationRequestDTO;
+import com.example.exam.DTO.SessionAllocationResultDTO;
+import com.example.exam.DTO.StudentDTO;
+import com.example.exam.exception.BusinessException;
+import com.example.exam.model.Exam;
+import com.example.exam.model.Seat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * 整场考试自动排座服务
+ * 同一日期和起止时间的全部试室共用一份学生名单：按容量把学生分到各试室，
+ * 在ForkJoinPool中并行求解各试室，全部求解成功后在同一事务中批量写入全部试室，任一试室失败时不写入任何座位
+ */
+@Service
+public class SessionAllocationService {
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private ExamSlotIndex examSlotIndex;
+
+    @Autowired
+    @Qualifier("seatAllocationPool")
+    private ForkJoinPool seatAllocationPool;
+
+    public SessionAllocationResultDTO allocateSession(SessionAllocationRequestDTO request) {
+        long start = System.nanoTime();
+        if (request.getExamDate() == null || request.getStartTime() == null || request.getEndTime() == null) {
+            throw new BusinessException(400, "考试日期和起止时间不能为空");
+        }
+        LocalDate examDate;
+        LocalTime startTime;
+        LocalTime endTime;
+        try {
+            examDate = LocalDate.parse(request.getExamDate());
+            startTime = LocalTime.parse(request.getStartTime());
+            endTime = LocalTime.parse(request.getEndTime());
+        } catch (DateTimeParseException e) {
+            throw new BusinessException(400, "考试日期或时间格式不正确，请使用 yyyy-MM-dd 和 HH:mm 格式");
+        }
+        List<StudentDTO> students = request.getStudents();
+        if (students == null || students.isEmpty()) {
+            throw new BusinessException(400, "学生名单不能为空");
+        }
+
+        // 同一时段的全部考试，按试室号排序保证分配结果稳定
+        List<Exam> exams = examSlotIndex.getAll().stream()
+                .filter(exam -> examDate.equals(exam.getExamDate())
+                        && startTime.equals(exam.getStartTime())
+                        && endTime.equals(exam.getEndTime()))
+                .sorted(Comparator.comparing(Exam::getRoom))
+                .collect(Collectors.toList());
+        if (exams.isEmpty()) {
+            throw new BusinessException(404, "该时段没有考试");
+        }
+
+        List<SeatAllocationRequestDTO> layouts = new ArrayList<>(exams.size());
+        int[] capacities = new int[exams.size()];
+        int totalCapacity = 0;
+        for (int i = 0; i < exams.size(); i++) {
+            SeatAllocationRequestDTO layout = layoutFor(request, exams.get(i).getRoom());
+            if (layout.getRows() <= 0 || layout.getCols() <= 0) {
+                throw new BusinessException(400, "试室 " + exams.get(i).getRoom() + " 未设置行数和列数");
+            }
+            layouts.add(layout);
+            capacities[i] = seatService.seatCapacity(layout);
+            totalCapacity += capacities[i];
+        }
+        if (students.size() > totalCapacity) {
+            throw new BusinessException(400, "学生人数 " + students.size() + " 超过该时段全部试室的可用座位数 " + totalCapacity);
+        }
+
+        List<List<StudentDTO>> roomStudents = splitStudents(students, capacities, totalCapacity);
+
+        // 并行求解各试室，任一试室失败则不写入任何座位
+        List<Callable<List<Seat>>> tasks = new ArrayList<>(exams.size());
+        for (int i = 0; i < exams.size(); i++) {
+            Exam exam = exams.get(i);
+            SeatAllocationRequestDTO layout = layouts.get(i);
+            List<StudentDTO> assigned = roomStudents.get(i);
+            tasks.add(() -> assigned.isEmpty() ? emptySeats(exam, layout) : seatService.allocateSeats(exam, layout, assigned));
+        }
+        List<List<Seat>> roomSeats = new ArrayList<>(exams.size());
+        List<String> errors = new ArrayList<>();
+        List<Future<List<Seat>>> futures = seatAllocationPool.invokeAll(tasks);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                roomSeats.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                errors.add(exams.get(i).getRoom() + "：" + (cause instanceof BusinessException ? cause.getMessage() : String.valueOf(cause)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException(500, "排座被中断");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BusinessException(400, "部分试室无法完成排座，未写入任何座位：" + String.join("；", errors));
+        }
+        long solveMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 全部试室在同一事务中写入，学生冲突检查不比较本时段的其他试室，学生会在试室之间重新分配
+        List<Long> sessionExamIds = exams.stream().map(Exam::getId).collect(Collectors.toList());
+        seatService.replaceSessionSeats(exams, roomSeats, sessionExamIds);
+        SessionAllocationResultDTO result = new SessionAllocationResultDTO();
+        for (int i = 0; i < exams.size(); i++) {
+            result.getRooms().add(seatService.toAllocationResult(exams.get(i), roomSeats.get(i)));
+        }
+        result.setTotalStudents(students.size());
+        result.setSolveMillis(solveMillis);
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    // 试室布局：优先使用按试室号指定的布局，否则使用默认布局；约束条件统一取请求中的设置
+    private SeatAllocationRequestDTO layoutFor(SessionAllocationRequestDTO request, String room) {
+        SeatAllocationRequestDTO override = request.getRoomLayouts() != null ? request.getRoomLayouts().get(room) : null;
+        SeatAllocationRequestDTO layout = new SeatAllocationRequestDTO();
+        SeatAllocationRequestDTO source = override != null ? override : request;
+        layout.setRows(source.getRows());
+        layout.setCols(source.getCols());
+        layout.setBlockedSeats(source.getBlockedSeats());
+        layout.setMaxSeats(source.getMaxSeats());
+        layout.setMinClassDistance(request.getMinClassDistance());
+        layout.setAlternateSubjects(request.isAlternateSubjects());
+        return layout;
+    }
+
+    /**
+     * 按容量比例把学生分到各试室
+     * 学生先按班级排序，再轮流发给未满的试室，使每个班级均匀分散到各试室，降低同班间距约束的难度
+     */
+    static List<List<StudentDTO>> splitStudents(List<StudentDTO> students, int[] capacities, int totalCapacity) {
+        int roomCount = capacities.length;
+        int[] quotas = new int[roomCount];
+        int allotted = 0;
+        for (int i = 0; i < roomCount; i++) {
+            quotas[i] = (int) ((long) students.size() * capacities[i] / totalCapacity);
+            allotted += quotas[i];
+        }
+        // 余下的学生补给还有空位的试室
+        for (int i = 0; allotted < students.size(); i = (i + 1) % roomCount) {
+            if (quotas[i] < capacities[i]) {
+                quotas[i]++;
+                allotted++;
+            }
+        }
+
+        List<StudentDTO> sorted = new ArrayList<>(students);
+        sorted.sort(Comparator.comparing(student -> String.valueOf(student.getClassName())));
+
+        List<List<StudentDTO>> result = new ArrayList<>(roomCount);
+        for (int quota : quotas) {
+            result.add(new ArrayList<>(quota));
+        }
+        int room = 0;
+        for (StudentDTO student : sorted) {
+            while (result.get(room).size() >= quotas[room]) {
+                room = (room + 1) % roomCount;
+            }
+            result.get(room).add(student);
+            room = (room + 1) % roomCount;
+        }
+        return result;
+    }
+
+    // 没有分到学生的试室全部为空座
+    private List<Seat> emptySeats(Exam exam, SeatAllocationRequestDTO layout) {
+        boolean[] blocked = seatService.blockedSeats(layout);
+        List<Seat> seats = new ArrayList<>(blocked.length);
+        for (int i = 0; i < blocked.length; i++) {
+            Seat seat = new Seat();
+            seat.setSeatNumber(i + 1);
+            seat.setAvailable(!blocked[i]);
+            seat.setExam(exam);
+            seats.add(seat);
+        }
+        return seats;
+    }
+}
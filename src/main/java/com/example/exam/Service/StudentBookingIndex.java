@@ -0,0 +1,246 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.model.Exam;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 学生考试安排索引
+ * 按考试日期分组，每个学生对应一个按开始时间排序的考试时段表，
+ * 检查某个时段是否与该学生已有的考试重叠只需一次哈希查找加一次有序表定位。
+ * 启动时从seat/exam表加载，之后通过座位变更事件增量维护
+ */
+@Component
+public class StudentBookingIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentBookingIndex.class);
+
+    private static final String LOAD_SQL = "SELECT s.exam_id, s.student_name, e.room, e.subject, e.exam_date, e.start_time, e.end_time "
+            + "FROM seat s JOIN exam e ON e.id = s.exam_id "
+            + "WHERE s.student_name IS NOT NULL AND s.student_name <> ''";
+
+    // 考试日期 -> 学生姓名 -> (开始时间, 考试ID) -> 考试时段
+    private final Map<LocalDate, Map<String, NavigableMap<Long, Booking>>> bookingsByDate = new ConcurrentHashMap<>();
+    // 考试ID -> 该考试的时段和已安排的学生，用于增量更新时移除旧数据
+    private final Map<Long, ExamBookings> bookingsByExam = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 应用启动完成后从数据库加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        Map<Long, Booking> slots = new HashMap<>();
+        Map<Long, Set<String>> names = new HashMap<>();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            long examId = rs.getLong(1);
+            String name = normalize(rs.getString(2));
+            if (name == null) {
+                return;
+            }
+            if (!slots.containsKey(examId)) {
+                Date examDate = rs.getDate(5);
+                Time startTime = rs.getTime(6);
+                Time endTime = rs.getTime(7);
+                if (examDate == null || startTime == null || endTime == null) {
+                    return;
+                }
+                slots.put(examId, new Booking(examId, rs.getString(3), rs.getString(4),
+                        examDate.toLocalDate(), startTime.toLocalTime(), endTime.toLocalTime()));
+            }
+            names.computeIfAbsent(examId, id -> new HashSet<>()).add(name);
+        });
+        for (Map.Entry<Long, Booking> entry : slots.entrySet()) {
+            add(entry.getValue(), names.get(entry.getKey()));
+        }
+        loaded = true;
+        logger.info("学生考试安排索引加载完成，共 {} 个考试", bookingsByExam.size());
+    }
+
+    /**
+     * 座位变更后（事务提交后）更新该考试的学生安排
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSeatsChanged(SeatsChangedEvent event) {
+        if (!loaded) {
+            // 尚未加载时变更已在数据库中，加载时会一并读取
+            return;
+        }
+        Exam exam = event.getExam();
+        remove(exam.getId());
+        if (event.isExamDeleted() || exam.getExamDate() == null || exam.getStartTime() == null || exam.getEndTime() == null) {
+            return;
+        }
+        Set<String> names = new HashSet<>();
+        for (SeatRowDTO seat : event.getSeats()) {
+            String name = normalize(seat.getStudentName());
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        add(new Booking(exam.getId(), exam.getRoom(), exam.getSubject(),
+                exam.getExamDate(), exam.getStartTime(), exam.getEndTime()), names);
+    }
+
+    /**
+     * 查找学生在指定日期与给定时段重叠的考试安排
+     * @param excludedExamIds 不参与比较的考试，通常是正在写入的考试本身
+     */
+    public Optional<Booking> findOverlap(String studentName, LocalDate examDate, LocalTime startTime, LocalTime endTime,
+                                         Collection<Long> excludedExamIds) {
+        String name = normalize(studentName);
+        if (name == null || examDate == null || startTime == null || endTime == null) {
+            return Optional.empty();
+        }
+        if (!loaded) {
+            load();
+        }
+        Map<String, NavigableMap<Long, Booking>> students = bookingsByDate.get(examDate);
+        if (students == null) {
+            return Optional.empty();
+        }
+        NavigableMap<Long, Booking> bookings = students.get(name);
+        if (bookings == null) {
+            return Optional.empty();
+        }
+        // 开始时间早于给定结束时间的安排中，结束时间晚于给定开始时间的即为重叠
+        int start = startTime.toSecondOfDay();
+        for (Booking booking : bookings.headMap(key(endTime.toSecondOfDay(), 0), false).descendingMap().values()) {
+            if (booking.endSecond > start && !excludedExamIds.contains(booking.getExamId())) {
+                return Optional.of(booking);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void add(Booking booking, Set<String> names) {
+        bookingsByExam.put(booking.getExamId(), new ExamBookings(booking, names));
+        Map<String, NavigableMap<Long, Booking>> students =
+                bookingsByDate.computeIfAbsent(booking.getExamDate(), date -> new ConcurrentHashMap<>());
+        long key = key(booking.startSecond, booking.getExamId());
+        for (String name : names) {
+            students.computeIfAbsent(name, n -> new ConcurrentSkipListMap<>()).put(key, booking);
+        }
+    }
+
+    private void remove(Long examId) {
+        ExamBookings previous = bookingsByExam.remove(examId);
+        if (previous == null) {
+            return;
+        }
+        Booking booking = previous.booking;
+        Map<String, NavigableMap<Long, Booking>> students = bookingsByDate.get(booking.getExamDate());
+        if (students == null) {
+            return;
+        }
+        long key = key(booking.startSecond, examId);
+        for (String name : previous.names) {
+            NavigableMap<Long, Booking> bookings = students.get(name);
+            if (bookings != null) {
+                bookings.remove(key);
+                if (bookings.isEmpty()) {
+                    students.remove(name);
+                }
+            }
+        }
+    }
+
+    // 按开始时间排序，同一开始时间按考试ID区分
+    private static long key(int startSecond, long examId) {
+        return ((long) startSecond << 32) | (examId & 0xFFFFFFFFL);
+    }
+
+    private static String normalize(String studentName) {
+        if (studentName == null) {
+            return null;
+        }
+        String name = studentName.trim();
+        return name.isEmpty() ? null : name;
+    }
+
+    private static class ExamBookings {
+        private final Booking booking;
+        private final Set<String> names;
+
+        ExamBookings(Booking booking, Set<String> names) {
+            this.booking = booking;
+            this.names = names;
+        }
+    }
+
+    /**
+     * 一场考试的时段信息
+     */
+    public static class Booking {
+        private final Long examId;
+        private final String room;
+        private final String subject;
+        private final LocalDate examDate;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final int startSecond;
+        private final int endSecond;
+
+        Booking(Long examId, String room, String subject, LocalDate examDate, LocalTime startTime, LocalTime endTime) {
+            this.examId = examId;
+            this.room = room;
+            this.subject = subject;
+            this.examDate = examDate;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.startSecond = startTime.toSecondOfDay();
+            this.endSecond = endTime.toSecondOfDay();
+        }
+
+        public Long getExamId() {
+            return examId;
+        }
+
+        public String getRoom() {
+            return room;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public LocalDate getExamDate() {
+            return examDate;
+        }
+
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+    }
+}
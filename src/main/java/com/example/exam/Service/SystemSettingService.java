@@ -6,11 +6,16 @@ import com.example.exam.repository.SystemSettingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * 系统设置服务类
@@ -21,6 +26,12 @@ public class SystemSettingService {
     @Autowired
     private SystemSettingRepository systemSettingRepository;
 
+    // 当前设置快照，读取时不访问数据库，修改提交后整体替换
+    private final AtomicReference<SettingsSnapshot> snapshot = new AtomicReference<>();
+
+    // 设置修改提交的次数，由snapshot加锁保护。加载快照期间有修改提交时，加载结果可能已过期，不能安装
+    private long commitSequence;
+
     /**
      * 获取所有系统设置
      * @return 系统设置列表
@@ -31,17 +42,10 @@ public class SystemSettingService {
 
     /**
      * 获取所有系统设置作为Map
-     * @return 系统设置Map
+     * @return 不可修改的系统设置Map
      */
     public Map<String, String> getAllSettingsAsMap() {
-        List<SystemSetting> settings = systemSettingRepository.findAll();
-        Map<String, String> settingsMap = new HashMap<>();
-        
-        for (SystemSetting setting : settings) {
-            settingsMap.put(setting.getKey(), setting.getValue());
-        }
-        
-        return settingsMap;
+        return currentSnapshot().values;
     }
 
     /**
@@ -60,8 +64,40 @@ public class SystemSettingService {
      * @return 设置值或默认值
      */
     public String getSettingValue(String key, String defaultValue) {
-        Optional<SystemSetting> setting = systemSettingRepository.findByKey(key);
-        return setting.map(SystemSetting::getValue).orElse(defaultValue);
+        String value = currentSnapshot().values.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 获取设置快照版本号，每次设置变更提交后递增
+     * @return 快照版本号
+     */
+    public long getSettingsVersion() {
+        return currentSnapshot().version;
+    }
+
+    /**
+     * 从数据库重新加载设置快照
+     * 加载期间有设置修改提交时重新加载，避免过期的加载结果覆盖提交后的快照
+     */
+    public void refreshSettings() {
+        while (true) {
+            long sequence;
+            synchronized (snapshot) {
+                sequence = commitSequence;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (SystemSetting setting : systemSettingRepository.findAll()) {
+                values.put(setting.getKey(), setting.getValue());
+            }
+            synchronized (snapshot) {
+                if (commitSequence == sequence) {
+                    SettingsSnapshot current = snapshot.get();
+                    snapshot.set(new SettingsSnapshot(values, current != null ? current.version + 1 : 1));
+                    return;
+                }
+            }
+        }
     }
 
     /**
@@ -80,17 +116,20 @@ public class SystemSettingService {
         try {
             Optional<SystemSetting> existingSetting = systemSettingRepository.findByKey(key);
             
+            SystemSetting saved;
             if (existingSetting.isPresent()) {
                 SystemSetting setting = existingSetting.get();
                 setting.setValue(value);
                 if (description != null && !description.isEmpty()) {
                     setting.setDescription(description);
                 }
-                return systemSettingRepository.save(setting);
+                saved = systemSettingRepository.save(setting);
             } else {
                 SystemSetting newSetting = new SystemSetting(key, value, description);
-                return systemSettingRepository.save(newSetting);
+                saved = systemSettingRepository.save(newSetting);
             }
+            afterCommit(() -> applyCommitted(current -> current.with(key, value)));
+            return saved;
         } catch (Exception e) {
             throw new BusinessException(500, "保存系统设置失败: " + e.getMessage());
         }
@@ -114,6 +153,7 @@ public class SystemSettingService {
     @Transactional
     public void deleteSetting(String key) {
         systemSettingRepository.deleteByKey(key);
+        afterCommit(() -> applyCommitted(current -> current.without(key)));
     }
 
     /**
@@ -157,7 +197,7 @@ public class SystemSettingService {
      * @return 系统名称
      */
     public String getSystemName() {
-        return getSettingValue("system.name", "考试座位管理系统");
+        return currentSnapshot().systemName;
     }
 
     /**
@@ -165,12 +205,7 @@ public class SystemSettingService {
      * @return 每页显示记录数
      */
     public int getPageSize() {
-        String pageSizeStr = getSettingValue("system.page.size", "10");
-        try {
-            return Integer.parseInt(pageSizeStr);
-        } catch (NumberFormatException e) {
-            return 10; // 默认值
-        }
+        return currentSnapshot().pageSize;
     }
 
     /**
@@ -178,8 +213,7 @@ public class SystemSettingService {
      * @return 是否允许用户注册
      */
     public boolean isAllowRegistration() {
-        String allowRegistrationStr = getSettingValue("system.allow.registration", "true");
-        return Boolean.parseBoolean(allowRegistrationStr);
+        return currentSnapshot().allowRegistration;
     }
 
     /**
@@ -187,7 +221,7 @@ public class SystemSettingService {
      * @return 默认考试开始时间
      */
     public String getDefaultExamStartTime() {
-        return getSettingValue("exam.default.start.time", "09:00");
+        return currentSnapshot().defaultExamStartTime;
     }
 
     /**
@@ -195,7 +229,7 @@ public class SystemSettingService {
      * @return 默认考试结束时间
      */
     public String getDefaultExamEndTime() {
-        return getSettingValue("exam.default.end.time", "11:00");
+        return currentSnapshot().defaultExamEndTime;
     }
 
     /**
@@ -203,11 +237,98 @@ public class SystemSettingService {
      * @return 默认考试时长
      */
     public int getDefaultExamDuration() {
-        String durationStr = getSettingValue("exam.default.duration", "120");
-        try {
-            return Integer.parseInt(durationStr);
-        } catch (NumberFormatException e) {
-            return 120; // 默认值
+        return currentSnapshot().defaultExamDuration;
+    }
+
+    private SettingsSnapshot currentSnapshot() {
+        SettingsSnapshot current = snapshot.get();
+        if (current == null) {
+            synchronized (snapshot) {
+                if (snapshot.get() == null) {
+                    refreshSettings();
+                }
+                current = snapshot.get();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 把已提交的修改应用到快照，并使正在进行的加载失效；快照尚未加载时由下次加载读到这次修改
+     */
+    private void applyCommitted(UnaryOperator<SettingsSnapshot> change) {
+        synchronized (snapshot) {
+            commitSequence++;
+            SettingsSnapshot current = snapshot.get();
+            if (current != null) {
+                snapshot.set(change.apply(current));
+            }
+        }
+    }
+
+    /**
+     * 存在事务时在提交后执行，避免回滚的修改进入快照
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 不可变的设置快照，常用设置在创建时解析为对应类型
+     */
+    private static final class SettingsSnapshot {
+        private final Map<String, String> values;
+        private final long version;
+        private final String systemName;
+        private final int pageSize;
+        private final boolean allowRegistration;
+        private final String defaultExamStartTime;
+        private final String defaultExamEndTime;
+        private final int defaultExamDuration;
+
+        private SettingsSnapshot(Map<String, String> values, long version) {
+            this.values = Collections.unmodifiableMap(values);
+            this.version = version;
+            this.systemName = valueOrDefault("system.name", "考试座位管理系统");
+            this.pageSize = parseInt(valueOrDefault("system.page.size", "10"), 10);
+            this.allowRegistration = Boolean.parseBoolean(valueOrDefault("system.allow.registration", "true"));
+            this.defaultExamStartTime = valueOrDefault("exam.default.start.time", "09:00");
+            this.defaultExamEndTime = valueOrDefault("exam.default.end.time", "11:00");
+            this.defaultExamDuration = parseInt(valueOrDefault("exam.default.duration", "120"), 120);
+        }
+
+        private SettingsSnapshot with(String key, String value) {
+            Map<String, String> copy = new HashMap<>(values);
+            copy.put(key, value);
+            return new SettingsSnapshot(copy, version + 1);
+        }
+
+        private SettingsSnapshot without(String key) {
+            Map<String, String> copy = new HashMap<>(values);
+            copy.remove(key);
+            return new SettingsSnapshot(copy, version + 1);
+        }
+
+        private String valueOrDefault(String key, String defaultValue) {
+            String value = values.get(key);
+            return value != null ? value : defaultValue;
+        }
+
+        private static int parseInt(String value, int defaultValue) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                return defaultValue; // 默认值
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatDTO;
+import com.example.exam.DTO.SheetImportResultDTO;
+import com.example.exam.DTO.SheetSeatsDTO;
+import com.example.exam.exception.BusinessException;
+import com.example.exam.model.Exam;
+import com.example.exam.model.Seat;
+import com.example.exam.utils.ExcelUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 全校座位表导入服务
+ * 一个工作簿包含多个试室的座位表，每个工作表对应一场考试，整本工作簿只解析一次
+ */
+@Service
+public class WorkbookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkbookImportService.class);
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private SeatImportMetrics seatImportMetrics;
+
+    /**
+     * 导入工作簿中的全部工作表，每个工作表在独立事务中替换对应考试的座位
+     * 单个工作表失败不影响其他工作表，结果中逐个记录
+     */
+    public List<SheetImportResultDTO> importWorkbook(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(400, "Excel文件不能为空");
+        }
+
+        List<SheetImportResultDTO> results = new ArrayList<>();
+        File tempFile = null;
+        try {
+            tempFile = ExcelUtils.spoolToTempFile(file);
+            ExcelUtils.streamSheetsFromExcel(tempFile, sheet -> results.add(importSheet(sheet)));
+        } catch (IOException e) {
+            throw new BusinessException(500, "Excel文件处理失败: " + e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+
+        if (results.isEmpty()) {
+            throw new BusinessException(400, "Excel文件中没有工作表");
+        }
+        return results;
+    }
+
+    private SheetImportResultDTO importSheet(SheetSeatsDTO sheet) {
+        SheetImportResultDTO result = new SheetImportResultDTO(sheet.getSheetName());
+        if (!sheet.hasSlot()) {
+            result.setMessage("无法识别工作表对应的考试，请在第一行填写考试信息或按“科目_试室_yyyyMMdd_HHmm-HHmm”命名工作表");
+            return result;
+        }
+
+        String timeRange = sheet.getStartTime().format(TIME_FORMATTER) + " ~ " + sheet.getEndTime().format(TIME_FORMATTER);
+        result.setRoom(sheet.getRoom());
+        result.setSlot(sheet.getExamDate() + " " + timeRange);
+        if (sheet.getSeats().isEmpty()) {
+            result.setMessage("工作表中没有有效的座位数据");
+            return result;
+        }
+
+        try {
+            Exam exam = findOrCreateExam(sheet, timeRange);
+
+            List<Seat> seats = new ArrayList<>(sheet.getSeats().size());
+            for (SeatDTO dto : sheet.getSeats()) {
+                Seat seat = new Seat();
+                seat.setSeatNumber(dto.getSeatNumber());
+                seat.setStudentName(dto.getStudentName());
+                seat.setAvailable(dto.isAvailable());
+                seat.setExam(exam);
+                seats.add(seat);
+            }
+
+            result.setImportedSeats(seatService.replaceSeats(exam, seats));
+            result.setSuccess(true);
+            seatImportMetrics.imported(SeatImportMetrics.SOURCE_WORKBOOK, result.getImportedSeats());
+            result.setMessage("成功导入 " + result.getImportedSeats() + " 条座位信息");
+        } catch (BusinessException e) {
+            seatImportMetrics.rejected(SeatImportMetrics.SOURCE_WORKBOOK, sheet.getSeats().size());
+            result.setMessage(e.getMessage());
+        } catch (Exception e) {
+            logger.error("导入工作表 {} 失败", sheet.getSheetName(), e);
+            seatImportMetrics.rejected(SeatImportMetrics.SOURCE_WORKBOOK, sheet.getSeats().size());
+            result.setMessage("导入座位信息失败: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private Exam findOrCreateExam(SheetSeatsDTO sheet, String timeRange) {
+        Optional<Exam> examOpt = examService.findExamBySlot(sheet.getRoom(), sheet.getStartTime(), sheet.getEndTime(), sheet.getExamDate());
+        if (examOpt.isPresent()) {
+            return examOpt.get();
+        }
+        if (sheet.getSubject() == null || sheet.getSubject().trim().isEmpty()) {
+            throw new BusinessException(404, "考试不存在且工作表未提供考试科目，无法创建考试");
+        }
+
+        Exam exam = new Exam();
+        exam.setSubject(sheet.getSubject().trim());
+        exam.setRoom(sheet.getRoom());
+        exam.setExamType("闭卷"); // 默认考试类型
+        exam.setStartEndTime(timeRange);
+        exam.setStartTime(sheet.getStartTime());
+        exam.setEndTime(sheet.getEndTime());
+        exam.setExamDate(sheet.getExamDate());
+        exam.setNotes("通过Excel导入创建");
+        return examService.saveExam(exam);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.exam.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 自动排座线程池配置
+ * 整场考试排座时各试室的求解相互独立，在专用的ForkJoinPool中并行执行，默认使用全部CPU核心
+ */
+@Configuration
+public class AllocationPoolConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool seatAllocationPool(@Value("${exam.allocation.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.exam.config;
+
+import com.example.exam.Service.SeatChartSnapshotService;
+import com.example.exam.utils.TimeRangeUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * 已冻结考试的座位表直接由快照返回
+ * 拦截 /exam/seats 页面和 /exam/seats/data 数据请求，命中快照时按 Accept-Encoding 返回原文或gzip内容，
+ * 带强ETag和Cache-Control，If-None-Match匹配时返回304；未冻结或参数无法解析时交给控制器处理
+ */
+@Component
+public class FrozenSeatChartFilter extends OncePerRequestFilter {
+
+    private static final String SEATS_PAGE = "/exam/seats";
+    private static final String SEATS_DATA = "/exam/seats/data";
+
+    @Autowired
+    private SeatChartSnapshotService seatChartSnapshotService;
+
+    @Value("${exam.snapshot.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !SEATS_PAGE.equals(path) && !SEATS_DATA.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean page = request.getRequestURI().endsWith(SEATS_PAGE);
+        Optional<SeatChartSnapshotService.Snapshot> snapshot = seatChartSnapshotService.hasSnapshots()
+                ? findSnapshot(request, page ? "start_end_time" : "timeRange")
+                : Optional.empty();
+        if (snapshot.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        SeatChartSnapshotService.Body body = page ? snapshot.get().getHtml() : snapshot.get().getJson();
+        boolean gzip = acceptsGzip(request);
+        String etag = gzip ? body.getGzipEtag() : body.getEtag();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAgeSeconds);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] content = gzip ? body.getGzip() : body.getIdentity();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(body.getContentType());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(content.length);
+        if ("GET".equals(request.getMethod())) {
+            response.getOutputStream().write(content);
+        }
+    }
+
+    private Optional<SeatChartSnapshotService.Snapshot> findSnapshot(HttpServletRequest request, String timeParameter) {
+        String room = request.getParameter("room");
+        String timeRange = request.getParameter(timeParameter);
+        String date = request.getParameter("date");
+        if (room == null || timeRange == null || date == null) {
+            return Optional.empty();
+        }
+        try {
+            LocalTime[] times = TimeRangeUtils.parse(timeRange);
+            if (times == null) {
+                return Optional.empty();
+            }
+            return seatChartSnapshotService.find(room, times[0], times[1], LocalDate.parse(date.trim()));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // If-None-Match使用弱比较，忽略W/前缀
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
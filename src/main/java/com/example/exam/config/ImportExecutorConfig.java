@@ -0,0 +1,28 @@
+package com.example.exam.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 座位导入线程池配置
+ * 并发导入数和排队数都有上限，避免大量导入同时占用数据库连接池
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor seatImportExecutor(
+            @Value("${exam.import.max-concurrent:2}") int maxConcurrent,
+            @Value("${exam.import.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("seat-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.exam.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 监控指标配置
+ * 启用 @Timed 注解，耗时指标的百分位在 application.properties 中按指标名前缀配置，
+ * 指标通过 /actuator/prometheus 暴露
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
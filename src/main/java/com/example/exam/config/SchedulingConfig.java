@@ -0,0 +1,13 @@
+package com.example.exam.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置
+ * 目前用于控制面板统计与数据库的定期核对，间隔由 exam.dashboard.reconcile-interval-ms 配置
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
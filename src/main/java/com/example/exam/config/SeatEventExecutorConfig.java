@@ -0,0 +1,23 @@
+package com.example.exam.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 座位变更推送线程池配置
+ * 每个订阅者同一时间最多只有一个发送任务，排队任务数不会超过订阅者数
+ */
+@Configuration
+public class SeatEventExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor seatEventExecutor(@Value("${exam.sse.send-threads:4}") int sendThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(sendThreads);
+        executor.setMaxPoolSize(sendThreads);
+        executor.setThreadNamePrefix("seat-event-");
+        return executor;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.exam.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 慢SQL日志配置
+ * 把数据源包装为 SlowQueryLoggingDataSource，代替Hibernate逐条输出SQL和绑定参数的DEBUG/TRACE日志
+ */
+@Configuration
+@ConditionalOnProperty(name = "exam.sql.slow-log.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    @Bean
+    public static BeanPostProcessor slowQueryLogPostProcessor(
+            @Value("${exam.sql.slow-threshold-ms:200}") long thresholdMillis,
+            @Value("${exam.sql.sample-rate:0.001}") double sampleRate) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof SlowQueryLoggingDataSource)) {
+                    return new SlowQueryLoggingDataSource((DataSource) bean, thresholdMillis, sampleRate);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.exam.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 慢SQL日志
+ * 包装连接和语句，记录每条语句从执行到结果集关闭的耗时，只输出超过阈值的语句（WARN）
+ * 和按比例随机抽样的普通语句（INFO），内容包括SQL、绑定参数、影响或读取的行数和调用位置。
+ * 不输出的语句只多一次计时和参数数组的赋值，调用位置和参数文本只在输出时才计算
+ */
+public class SlowQueryLoggingDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLoggingDataSource.class);
+
+    private static final String APPLICATION_PACKAGE = "com.example.exam.";
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+
+    public SlowQueryLoggingDataSource(DataSource target, long thresholdMillis, double sampleRate) {
+        super(target);
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    /**
+     * 输出一条语句的日志
+     * @param slow 是否超过阈值，否则为抽样输出
+     */
+    protected void log(boolean slow, String message) {
+        if (slow) {
+            logger.warn("慢SQL {}", message);
+        } else {
+            logger.info("SQL抽样 {}", message);
+        }
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement) {
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return wrapStatement((Statement) result, method.getReturnType(), sql);
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private Statement wrapStatement(Statement statement, Class<?> type, String sql) {
+        Class<?> statementType = type == CallableStatement.class || type == PreparedStatement.class ? type : Statement.class;
+        StatementHandler handler = new StatementHandler(statement, sql);
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{statementType}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * 语句代理：收集绑定参数，计时并在执行完成（查询为结果集关闭）时决定是否输出
+     */
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private Object[] parameters = new Object[8];
+        private int parameterCount;
+        private int batchSize;
+        // 正在读取的查询，结果集或语句关闭时输出
+        private Execution pending;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                setParameter((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, 0, parameterCount, null);
+                parameterCount = 0;
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (name.equals("close")) {
+                finish();
+            }
+            return SlowQueryLoggingDataSource.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finish();
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            Execution execution = new Execution(sql, System.nanoTime());
+            Object result = SlowQueryLoggingDataSource.invoke(statement, method, args);
+            if (result instanceof ResultSet) {
+                pending = execution;
+                return wrapResultSet((ResultSet) result, execution);
+            }
+            if (result instanceof int[]) {
+                execution.rows = sum((int[]) result);
+                execution.batchSize = batchSize;
+                batchSize = 0;
+            } else if (result instanceof long[]) {
+                execution.rows = sum((long[]) result);
+                execution.batchSize = batchSize;
+                batchSize = 0;
+            } else if (result instanceof Number) {
+                execution.rows = ((Number) result).longValue();
+            } else if (Boolean.FALSE.equals(result)) {
+                execution.rows = statement.getUpdateCount();
+            }
+            complete(execution);
+            return result;
+        }
+
+        // 结果集每行都要调用多次取值方法，用直接转发的子类代替动态代理，只拦截next和close
+        private ResultSet wrapResultSet(ResultSet resultSet, Execution execution) {
+            execution.rows = 0;
+            return new DelegatingResultSet(resultSet) {
+                @Override
+                public boolean next() throws SQLException {
+                    boolean hasRow = super.next();
+                    if (hasRow) {
+                        execution.rows++;
+                    }
+                    return hasRow;
+                }
+
+                @Override
+                public void close() throws SQLException {
+                    try {
+                        super.close();
+                    } finally {
+                        finish();
+                    }
+                }
+            };
+        }
+
+        private void finish() {
+            if (pending != null) {
+                Execution execution = pending;
+                pending = null;
+                complete(execution);
+            }
+        }
+
+        private void complete(Execution execution) {
+            long elapsed = System.nanoTime() - execution.startNanos;
+            boolean slow = elapsed >= thresholdNanos;
+            if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+                return;
+            }
+            StringBuilder message = new StringBuilder()
+                    .append(TimeUnit.NANOSECONDS.toMillis(elapsed)).append("ms");
+            if (execution.rows >= 0) {
+                message.append("，").append(execution.rows).append(" 行");
+            }
+            if (execution.batchSize > 0) {
+                message.append("，批量 ").append(execution.batchSize).append(" 条");
+            }
+            message.append("，调用位置 ").append(callSite())
+                    .append("\n  ").append(execution.sql);
+            if (parameterCount > 0) {
+                message.append("\n  参数 ").append(formatParameters());
+            }
+            log(slow, message.toString());
+        }
+
+        private void setParameter(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        private String formatParameters() {
+            StringBuilder text = new StringBuilder("[");
+            for (int i = 0; i < parameterCount; i++) {
+                if (i > 0) {
+                    text.append(", ");
+                }
+                Object value = parameters[i];
+                if (value instanceof CharSequence) {
+                    String string = value.toString();
+                    text.append('\'').append(string.length() > MAX_PARAMETER_LENGTH
+                            ? string.substring(0, MAX_PARAMETER_LENGTH) + "..." : string).append('\'');
+                } else if (value instanceof byte[]) {
+                    text.append("<").append(((byte[]) value).length).append(" 字节>");
+                } else {
+                    text.append(value);
+                }
+            }
+            return text.append(']').toString();
+        }
+    }
+
+    /**
+     * 调用位置：调用栈中第一个应用代码的方法，经过Spring Data仓库代理时附带仓库方法
+     */
+    private static String callSite() {
+        return STACK_WALKER.walk(frames -> {
+            String repositoryMethod = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                Class<?> type = frame.getDeclaringClass();
+                if (Proxy.isProxyClass(type)) {
+                    for (Class<?> face : type.getInterfaces()) {
+                        if (face.getName().startsWith(APPLICATION_PACKAGE)) {
+                            repositoryMethod = face.getSimpleName() + "." + frame.getMethodName();
+                        }
+                    }
+                } else if (type.getName().startsWith(APPLICATION_PACKAGE)
+                        && !DataSource.class.isAssignableFrom(type.getNestHost())) {
+                    // 跳过本类等数据源包装类自身的调用
+                    String location = type.getSimpleName() + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+                    return repositoryMethod != null ? location + " -> " + repositoryMethod : location;
+                }
+            }
+            return "未知";
+        });
+    }
+
+    private static long sum(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+
+    private static class Execution {
+        private final String sql;
+        private final long startNanos;
+        // 影响或读取的行数，未知时为-1
+        private long rows = -1;
+        private int batchSize;
+
+        Execution(String sql, long startNanos) {
+            this.sql = sql;
+            this.startNanos = startNanos;
+        }
+    }
+}
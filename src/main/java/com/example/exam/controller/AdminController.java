@@ -1,9 +1,19 @@
 package com.example.exam.controller;
 
 import com.example.exam.DTO.ExamSeatDTO;
-import com.example.exam.DTO.SeatDTO;
+import com.example.exam.DTO.FrozenSeatChartDTO;
+import com.example.exam.DTO.SeatAllocationRequestDTO;
+import com.example.exam.DTO.SeatAllocationResultDTO;
+import com.example.exam.DTO.SessionAllocationRequestDTO;
+import com.example.exam.DTO.SheetImportResultDTO;
 import com.example.exam.Service.ExamService;
+import com.example.exam.Service.ExamVersionTracker;
+import com.example.exam.Service.SeatChartSnapshotService;
+import com.example.exam.Service.SeatImportJob;
+import com.example.exam.Service.SeatImportJobService;
+import com.example.exam.Service.SeatImportMetrics;
 import com.example.exam.Service.SeatService;
+import com.example.exam.Service.SessionAllocationService;
 import com.example.exam.Service.SystemSettingService;
 import com.example.exam.exception.BusinessException;
 import com.example.exam.model.Exam;
@@ -13,7 +23,13 @@ import com.example.exam.model.User;
 import com.example.exam.respository.ExamRepository;
 import com.example.exam.respository.SeatRepository;
 import com.example.exam.Service.UserService;
+import com.example.exam.Service.WorkbookImportService;
+import com.example.exam.utils.TimeRangeUtils;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +37,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -30,6 +47,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 
@@ -311,6 +329,24 @@ public class AdminController {
 
     @Autowired
     private ExamService examService;
+
+    @Autowired
+    private SeatImportJobService seatImportJobService;
+
+    @Autowired
+    private SeatImportMetrics seatImportMetrics;
+
+    @Autowired
+    private WorkbookImportService workbookImportService;
+
+    @Autowired
+    private SessionAllocationService sessionAllocationService;
+
+    @Autowired
+    private SeatChartSnapshotService seatChartSnapshotService;
+
+    @Autowired
+    private ExamVersionTracker examVersionTracker;
     
     @Autowired
     private SystemSettingService systemSettingService;
@@ -406,6 +442,7 @@ public class AdminController {
         return "redirect:/admin?room=" + room;
     }*/
     @PostMapping("/save")
+    @Timed("exam.admin.seats.save")
     @Transactional // 确保事务管理
     public String saveSeatArrangement(@RequestBody Map<String, Object> payload) {
         String room = (String) payload.get("room");
@@ -450,7 +487,7 @@ public class AdminController {
         }
 
         // 从数据库中获取与房间和时间段对应的 Exam 对象（包括日期）
-        Exam exam = examRepository.findByRoomAndStartTimeAndEndTimeAndExamDate(room, startLocalTime, endLocalTime, examDate)
+        Exam exam = examService.findExamBySlot(room, startLocalTime, endLocalTime, examDate)
                 .orElseThrow(() -> new BusinessException(404, "找不到对应的考试房间和时间段：" + room + " " + startTime + "~" + endTime + " " + examDate));
 
         // 转化并保存 Seat 数据
@@ -463,30 +500,11 @@ public class AdminController {
             return seat;
         }).collect(Collectors.toList());
 
-        // 检查座位号是否有重复
-        Set<Integer> seatNumbers = new HashSet<>();
-        for (Seat seat : seats) {
-            if (!seatNumbers.add(seat.getSeatNumber())) {
-                throw new BusinessException(400, "座位号 " + seat.getSeatNumber() + " 重复，请修改后再保存！");
-            }
-        }
-
-        // 检查数据库中是否已有重复座位号
-        List<Seat> existingSeats = seatRepository.findByExam(exam);
-        for (Seat seat : seats) {
-            for (Seat existingSeat : existingSeats) {
-                if (seat.getSeatNumber().equals(existingSeat.getSeatNumber())) {
-                    throw new BusinessException(400, "座位号 " + seat.getSeatNumber() + " 已存在于该房间中，请修改后再保存！");
-                }
-            }
-        }
+        // 检查座位号是否与本次提交或数据库中已有的座位号重复，一次报告全部冲突
+        seatService.validateSeatNumbers(exam, seats.stream().map(Seat::getSeatNumber).collect(Collectors.toList()), "保存");
 
         // 批量保存座位数据
-        try {
-            seatRepository.saveAll(seats);
-        } catch (Exception e) {
-            throw new BusinessException(500, "保存座位信息失败: " + e.getMessage());
-        }
+        seatService.saveSeatsInBatch(exam, seats);
 
         return "redirect:/admin?room=" + room;
     }
@@ -494,6 +512,8 @@ public class AdminController {
 
 
     @PostMapping("/upload-seat-chart")
+    @Timed("exam.admin.seats.upload")
+    @SqlBudget(statements = 2, entities = 0, collections = 0)
     @ResponseBody
     public ResponseEntity<String> uploadSeatChart(@RequestParam("file") MultipartFile file,
                                                   @RequestParam("room") String room,
@@ -515,9 +535,6 @@ public class AdminController {
                 throw new BusinessException(400, "考试日期不能为空");
             }
             
-            // 解析 Excel 文件
-            List<SeatDTO> seatData = seatService.parseExcel(file);
-
             // 将时间字符串转换为 LocalTime 类型
             LocalTime startLocalTime;
             LocalTime endLocalTime;
@@ -537,66 +554,182 @@ public class AdminController {
             }
 
             // 从数据库中获取与房间和时间段对应的 Exam 对象
-            Exam exam = examRepository.findByRoomAndStartTimeAndEndTimeAndExamDate(room, startLocalTime, endLocalTime, examLocalDate)
+            Exam exam = examService.findExamBySlot(room, startLocalTime, endLocalTime, examLocalDate)
                     .orElseThrow(() -> new BusinessException(404, "找不到对应的考试房间和时间段：" + room + " " + startTime + "~" + endTime + " " + examDate));
 
-            // 将 SeatDTO 转换为 Seat 实体并保存到数据库
-            List<Seat> seats = seatData.stream().map(seatDTO -> {
-                Seat seat = new Seat();
-                seat.setSeatNumber(seatDTO.getSeatNumber());
-                seat.setStudentName(seatDTO.getStudentName());
-                seat.setAvailable(seatDTO.getStudentName() == null || seatDTO.getStudentName().isEmpty());
-                seat.setExam(exam); // 确保关联到正确的考试
-                return seat;
-            }).collect(Collectors.toList());
-
-            // 检查座位号是否有重复
-            Set<Integer> seatNumbers = new HashSet<>();
-            for (Seat seat : seats) {
-                if (!seatNumbers.add(seat.getSeatNumber())) {
-                    throw new BusinessException(400, "导入的Excel中座位号 " + seat.getSeatNumber() + " 重复，请修改后再导入！");
-                }
+            // 边解析 Excel 边分块写入，校验座位号重复和学生冲突，任一环节失败时整体回滚
+            AtomicInteger rowsParsed = new AtomicInteger();
+            int saved;
+            try {
+                saved = seatService.importSeatsFromExcel(exam, file, false, rowsParsed::addAndGet);
+            } catch (BusinessException e) {
+                seatImportMetrics.rejected(SeatImportMetrics.SOURCE_UPLOAD, rowsParsed.get());
+                throw e;
             }
+            seatImportMetrics.imported(SeatImportMetrics.SOURCE_UPLOAD, saved);
+            return ResponseEntity.ok("座位信息导入成功！");
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getCode()).body(e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body("座位信息导入失败：" + e.getMessage());
+        }
+    }
 
-            // 检查座位号和学生姓名是否重复
-            List<Seat> existingSeats = seatRepository.findByExam(exam);
-            for (Seat seat : seats) {
-                for (Seat existingSeat : existingSeats) {
-                    if (seat.getSeatNumber().equals(existingSeat.getSeatNumber())) {
-                        throw new BusinessException(400, "座位号 " + seat.getSeatNumber() + " 已存在于该房间中，请修改后再导入！");
-                    }
-                }
+    /**
+     * 异步上传座位表
+     * 文件落盘后立即返回任务信息，通过 /import-jobs/{id} 查询进度
+     */
+    @PostMapping("/upload-seat-chart/async")
+    @Timed("exam.admin.seats.upload")
+    @ResponseBody
+    public ResponseEntity<?> uploadSeatChartAsync(@RequestParam("file") MultipartFile file,
+                                                  @RequestParam("room") String room,
+                                                  @RequestParam("startTime") String startTime,
+                                                  @RequestParam("endTime") String endTime,
+                                                  @RequestParam("examDate") String examDate) {
+        try {
+            LocalTime startLocalTime;
+            LocalTime endLocalTime;
+            try {
+                startLocalTime = LocalTime.parse(startTime);
+                endLocalTime = LocalTime.parse(endTime);
+            } catch (DateTimeParseException e) {
+                throw new BusinessException(400, "时间格式不正确，请使用 HH:mm 格式，例如 08:40");
             }
 
-            // 批量保存座位数据
+            LocalDate examLocalDate;
             try {
-                seatRepository.saveAll(seats);
-                return ResponseEntity.ok("座位信息导入成功！");
-            } catch (Exception e) {
-                throw new BusinessException(500, "保存座位信息失败: " + e.getMessage());
+                examLocalDate = LocalDate.parse(examDate);
+            } catch (DateTimeParseException e) {
+                throw new BusinessException(400, "考试日期格式不正确，请使用 yyyy-MM-dd 格式，例如 2025-01-01");
             }
+
+            Exam exam = examService.findExamBySlot(room, startLocalTime, endLocalTime, examLocalDate)
+                    .orElseThrow(() -> new BusinessException(404, "找不到对应的考试房间和时间段：" + room + " " + startTime + "~" + endTime + " " + examDate));
+
+            SeatImportJob job = seatImportJobService.submit(file, exam, false);
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/import-jobs/" + job.getId())
+                    .body(job);
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getCode()).body(e.getMessage());
+        }
+    }
+
+    /**
+     * 上传全校座位表：工作簿中每个工作表对应一个试室的一场考试，一次上传导入全部试室
+     */
+    @PostMapping("/upload-workbook")
+    @Timed("exam.admin.seats.upload")
+    @ResponseBody
+    public ResponseEntity<?> uploadWorkbook(@RequestParam("file") MultipartFile file) {
+        try {
+            List<SheetImportResultDTO> results = workbookImportService.importWorkbook(file);
+            return ResponseEntity.ok(results);
         } catch (BusinessException e) {
             return ResponseEntity.status(e.getCode()).body(e.getMessage());
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(500).body("座位信息导入失败：" + e.getMessage());
         }
     }
 
+    /**
+     * 自动排座：按试室布局、同班间距、科目交替和座位上限为学生分配座位，替换该考试的全部座位
+     */
+    @PostMapping("/exam/{id}/auto-arrange")
+    @ResponseBody
+    public ResponseEntity<?> autoArrangeSeats(@PathVariable("id") Long id,
+                                              @RequestBody SeatAllocationRequestDTO request) {
+        try {
+            SeatAllocationResultDTO result = seatService.autoArrangeSeats(id, request);
+            return ResponseEntity.ok(result);
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getCode()).body(e.getMessage());
+        }
+    }
+
+    /**
+     * 整场考试自动排座：同一日期和起止时间的全部试室共用一份学生名单，按容量分配后并行求解
+     */
+    @PostMapping("/session/auto-arrange")
+    @ResponseBody
+    public ResponseEntity<?> autoArrangeSession(@RequestBody SessionAllocationRequestDTO request) {
+        try {
+            return ResponseEntity.ok(sessionAllocationService.allocateSession(request));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getCode()).body(e.getMessage());
+        }
+    }
+
+    /**
+     * 冻结考试座位表：预先渲染座位表页面和JSON，冻结期间的查询直接返回快照
+     */
+    @PostMapping("/exam/{id}/freeze")
+    @ResponseBody
+    public ResponseEntity<?> freezeSeatChart(@PathVariable("id") Long id,
+                                             HttpServletRequest request,
+                                             HttpServletResponse response) {
+        try {
+            return ResponseEntity.ok(seatChartSnapshotService.freeze(id, request, response));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getCode()).body(e.getMessage());
+        }
+    }
+
+    /**
+     * 解除冻结，恢复实时查询
+     */
+    @PostMapping("/exam/{id}/unfreeze")
+    @ResponseBody
+    public ResponseEntity<String> unfreezeSeatChart(@PathVariable("id") Long id) {
+        if (!seatChartSnapshotService.unfreeze(id)) {
+            return ResponseEntity.status(404).body("该考试未冻结");
+        }
+        return ResponseEntity.ok("已解除冻结");
+    }
+
+    /**
+     * 已冻结的考试
+     */
+    @GetMapping("/exam/frozen")
+    @ResponseBody
+    public List<FrozenSeatChartDTO> getFrozenSeatCharts() {
+        return seatChartSnapshotService.getFrozenExams();
+    }
+
+    /**
+     * 删除考试及其座位信息
+     */
+    @PostMapping("/exam/{id}/delete")
+    @ResponseBody
+    public ResponseEntity<String> deleteExam(@PathVariable Long id) {
+        examService.deleteExam(id);
+        return ResponseEntity.ok("考试信息已删除");
+    }
+
     @GetMapping("/exam/data")
     @ResponseBody
     public ExamSeatDTO getExamData(@RequestParam String room,
                                    @RequestParam String timeRange,
-                                   @RequestParam String date) {
+                                   @RequestParam String date,
+                                   WebRequest webRequest) {
         try {
             // 解析时间范围
-            String[] times = timeRange.split(" ~ ");
-            LocalTime startTime = LocalTime.parse(times[0]);
-            LocalTime endTime = LocalTime.parse(times[1]);
+            LocalTime[] times = TimeRangeUtils.parse(timeRange);
+            if (times == null) {
+                throw new IllegalArgumentException("时间范围格式错误");
+            }
+            LocalTime startTime = times[0];
+            LocalTime endTime = times[1];
 
             // 解析日期
             LocalDate examDate = LocalDate.parse(date);
 
+            // 考试版本未变时直接返回304
+            Optional<Exam> examOpt = examService.findExamBySlot(room, startTime, endTime, examDate);
+            if (examOpt.isPresent() && webRequest.checkNotModified(examVersionTracker.getETag(examOpt.get().getId()))) {
+                return null;
+            }
+
             // 获取考试数据
             return examService.getExamDetails(room, startTime, endTime, examDate);
         } catch (Exception e) {
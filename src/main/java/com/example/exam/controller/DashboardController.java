@@ -1,13 +1,43 @@
 package com.example.exam.controller;
 
+import com.example.exam.DTO.DashboardRoomDTO;
+import com.example.exam.Service.DashboardAggregates;
+import com.example.exam.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 @Controller
 public class DashboardController {
 
+    @Autowired
+    private DashboardAggregates dashboardAggregates;
+
     @GetMapping("/dashboard")
     public String dashboardPage() {
         return "dashboard"; // 返回 dashboard.html
     }
-}
\ No newline at end of file
+
+    /**
+     * 指定日期（默认今天）各试室的考试、座位和导入统计，直接读取内存计数器
+     */
+    @GetMapping("/dashboard/stats")
+    @ResponseBody
+    @SqlBudget(statements = 0)
+    public List<DashboardRoomDTO> getStats(@RequestParam(value = "date", required = false) String date) {
+        if (date == null || date.trim().isEmpty()) {
+            return dashboardAggregates.getRooms(LocalDate.now());
+        }
+        try {
+            return dashboardAggregates.getRooms(LocalDate.parse(date.trim()));
+        } catch (DateTimeParseException e) {
+            throw new BusinessException(400, "日期格式不正确，请使用 yyyy-MM-dd 格式，例如 2025-01-01");
+        }
+    }
+}
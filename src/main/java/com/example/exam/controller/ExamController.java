@@ -1,25 +1,33 @@
 package com.example.exam.controller;
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.example.exam.DTO.ExamSeatDTO;
-import com.example.exam.DTO.SeatDTO;
+import com.example.exam.DTO.SeatLocationDTO;
+import com.example.exam.DTO.SeatOccupancyDTO;
+import com.example.exam.DTO.SeatRowDTO;
 import com.example.exam.exception.BusinessException;
 import com.example.exam.model.Exam;
 import com.example.exam.Service.ExamService;
+import com.example.exam.Service.SeatAvailabilityIndex;
+import com.example.exam.Service.SeatChangeBroadcaster;
+import com.example.exam.Service.ExamVersionTracker;
+import com.example.exam.Service.SeatChartSnapshotService;
+import com.example.exam.Service.SeatImportJob;
+import com.example.exam.Service.SeatLookupIndex;
+import com.example.exam.Service.SeatImportJobService;
+import com.example.exam.Service.SeatImportMetrics;
 import com.example.exam.Service.SeatService;
 import com.example.exam.model.Seat;
 import com.example.exam.respository.ExamRepository;
 import com.example.exam.respository.SeatRepository;
+import com.example.exam.utils.TimeRangeUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -27,11 +35,15 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.io.UnsupportedEncodingException;
 
 @Controller
@@ -56,32 +68,30 @@ public class ExamController {
     }
 
     @GetMapping("/seats")
+    @SqlBudget(statements = 1, entities = 0, collections = 0)
     public String getSeatsByRoom(
             @RequestParam("room") String room,
             @RequestParam("start_end_time") String startEndTime,
             @RequestParam("subject") String subject,
             @RequestParam("date") String date,
             Model model) {
-        // 解析起止时间
-        String[] times = startEndTime.split(" ~ ");
-        if (times.length != 2) {
-            throw new com.example.exam.exception.BusinessException(400, "时间格式不正确！");
-        }
-
-        // 解析日期和时间
+        // 解析日期和起止时间
         LocalDate examDate;
-        LocalTime startTime;
-        LocalTime endTime;
+        LocalTime[] times;
         try {
             examDate = LocalDate.parse(date);
-            startTime = LocalTime.parse(times[0].trim());
-            endTime = LocalTime.parse(times[1].trim());
+            times = TimeRangeUtils.parse(startEndTime);
         } catch (DateTimeParseException e) {
             throw new com.example.exam.exception.BusinessException(400, "日期或时间格式不正确！");
         }
+        if (times == null) {
+            throw new com.example.exam.exception.BusinessException(400, "时间格式不正确！");
+        }
+        LocalTime startTime = times[0];
+        LocalTime endTime = times[1];
 
         // 调用服务层方法，根据 room、startTime、endTime 和 examDate 获取座位信息
-        List<Seat> seats = seatService.getSeatsByRoom(room, startTime, endTime, examDate, subject);
+        List<SeatRowDTO> seats = seatService.getSeatsByRoom(room, startTime, endTime, examDate, subject);
 
         if (seats.isEmpty()) {
             model.addAttribute("message", "该试室在指定时间内暂无考生信息！");
@@ -98,6 +108,95 @@ public class ExamController {
         return "seats";
     }
 
+    /**
+     * 座位表数据（JSON），考试冻结后由快照直接返回
+     */
+    @GetMapping("/seats/data")
+    @ResponseBody
+    public ResponseEntity<?> getSeatChartData(
+            @RequestParam("room") String room,
+            @RequestParam("timeRange") String timeRange,
+            @RequestParam("date") String date) {
+        LocalDate examDate;
+        LocalTime[] times;
+        try {
+            examDate = LocalDate.parse(date.trim());
+            times = TimeRangeUtils.parse(timeRange);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException(400, "时间或日期格式不正确");
+        }
+        if (times == null) {
+            throw new BusinessException(400, "时间范围格式错误");
+        }
+        LocalTime startTime = times[0];
+        LocalTime endTime = times[1];
+
+        Exam exam = examService.findExamBySlot(room, startTime, endTime, examDate)
+                .orElseThrow(() -> new BusinessException(404, "未找到匹配的考试信息"));
+        List<SeatRowDTO> seats = seatService.getSeatsByRoom(room, startTime, endTime, examDate, exam.getSubject());
+        return ResponseEntity.ok(seatChartSnapshotService.seatChartData(exam, seats));
+    }
+
+    /**
+     * 指定日期各试室的座位占用情况（座位数、已占用、空座和第一个空座），由内存位图计算，不查询座位表
+     */
+    @GetMapping("/occupancy")
+    @ResponseBody
+    public List<SeatOccupancyDTO> getOccupancy(@RequestParam("date") String date) {
+        try {
+            return seatAvailabilityIndex.getOccupancy(LocalDate.parse(date.trim()));
+        } catch (DateTimeParseException e) {
+            throw new BusinessException(400, "考试日期格式不正确，请使用 yyyy-MM-dd 格式，例如 2025-01-01");
+        }
+    }
+
+    /**
+     * 查找考试中座位号大于after的第一个空座
+     */
+    @GetMapping("/next-free-seat")
+    @ResponseBody
+    public ResponseEntity<?> getNextFreeSeat(@RequestParam("examId") Long examId,
+                                             @RequestParam(value = "after", defaultValue = "0") int after) {
+        Optional<Exam> exam = examService.findExamById(examId);
+        if (!exam.isPresent()) {
+            return ResponseEntity.status(404).body("未找到考试信息");
+        }
+        SeatAvailabilityIndex.Availability availability = seatAvailabilityIndex.get(examId);
+        int seatNumber = availability.nextFree(after);
+        if (seatNumber < 0) {
+            return ResponseEntity.status(404).body("座位号 " + after + " 之后没有空座");
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("examId", examId);
+        result.put("seatNumber", seatNumber);
+        result.put("freeSeats", availability.getFreeCount());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 订阅座位变更推送（Server-Sent Events），连接建立后先推送全部座位，之后只推送变化的座位
+     */
+    @GetMapping(value = "/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatChanges(
+            @RequestParam("room") String room,
+            @RequestParam("timeRange") String timeRange,
+            @RequestParam("date") String date) {
+        LocalDate examDate;
+        LocalTime[] times;
+        try {
+            examDate = LocalDate.parse(date.trim());
+            times = TimeRangeUtils.parse(timeRange);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException(400, "时间或日期格式不正确");
+        }
+        if (times == null) {
+            throw new BusinessException(400, "时间范围格式错误");
+        }
+        Exam exam = examService.findExamBySlot(room, times[0], times[1], examDate)
+                .orElseThrow(() -> new BusinessException(404, "未找到匹配的考试信息"));
+        return seatChangeBroadcaster.subscribe(exam.getId());
+    }
+
     /*@PostMapping("/save")
     public String saveExam(@RequestParam("subject") String subject,
                            @RequestParam("room") String room,
@@ -150,23 +249,25 @@ public class ExamController {
                            @RequestParam(value = "examDate", required = false) String examDate,
                            @RequestParam(value = "notes", required = false) String notes) {
         String timeRange = (customTime != null && !customTime.isEmpty()) ? customTime : defaultTime;
-        String[] times = timeRange.split(" ~ ");
-        if (times.length != 2 || examDate == null || examDate.isEmpty()) {
+        if (examDate == null || examDate.isEmpty()) {
             throw new com.example.exam.exception.BusinessException(400, "请填写完整的时间范围和日期");
         }
         
         try {
             // 解析时间段
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-            LocalTime startTime = LocalTime.parse(times[0].trim(), timeFormatter);
-            LocalTime endTime = LocalTime.parse(times[1].trim(), timeFormatter);
+            LocalTime[] times = TimeRangeUtils.parse(timeRange);
+            if (times == null) {
+                throw new com.example.exam.exception.BusinessException(400, "请填写完整的时间范围和日期");
+            }
+            LocalTime startTime = times[0];
+            LocalTime endTime = times[1];
 
             // 解析日期
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
             LocalDate examLocalDate = LocalDate.parse(examDate.trim(), dateFormatter);
 
             // 检查是否已经存在相同的考试信息
-            Optional<Exam> existingExam = examRepository.findByRoomAndStartTimeAndEndTimeAndExamDate(room, startTime, endTime, examLocalDate);
+            Optional<Exam> existingExam = examService.findExamBySlot(room, startTime, endTime, examLocalDate);
             if (existingExam.isPresent()) {
                 throw new com.example.exam.exception.BusinessException(409, "考试信息已存在");
             }
@@ -196,21 +297,31 @@ public class ExamController {
     public ResponseEntity<?> getExamData(
             @RequestParam("room") String room,
             @RequestParam("timeRange") String timeRange,
-            @RequestParam("date") String date) { // 新增日期参数
+            @RequestParam("date") String date, // 新增日期参数
+            WebRequest webRequest) {
         try {
             // 从 timeRange 拆分起始时间和结束时间
-            String[] times = timeRange.split(" ~ ");
-            if (times.length != 2) {
+            LocalTime[] times = TimeRangeUtils.parse(timeRange);
+            if (times == null) {
                 throw new com.example.exam.exception.BusinessException(400, "时间范围格式错误");
             }
-            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-            LocalTime startTime = LocalTime.parse(times[0].trim(), timeFormatter);
-            LocalTime endTime = LocalTime.parse(times[1].trim(), timeFormatter);
+            LocalTime startTime = times[0];
+            LocalTime endTime = times[1];
 
             // 解析日期
             DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
             LocalDate examDate = LocalDate.parse(date.trim(), dateFormatter);
 
+            // 考试版本未变时直接返回304
+            Optional<Exam> examOpt = examService.findExamBySlot(room, startTime, endTime, examDate);
+            String etag = null;
+            if (examOpt.isPresent()) {
+                etag = examVersionTracker.getETag(examOpt.get().getId());
+                if (webRequest.checkNotModified(etag)) {
+                    return null;
+                }
+            }
+
             // 从数据库查询对应 room、timeRange 和 date 的考试信息
             ExamSeatDTO examDTO = examService.getExamDetails(room, startTime, endTime, examDate);
             if (examDTO != null) {
@@ -218,7 +329,7 @@ public class ExamController {
                 Map<String, String> response = new HashMap<>();
                 response.put("subject", examDTO.getSubject());
                 response.put("notes", examDTO.getNotes());
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok().eTag(etag).body(response);
             } else {
                 // 没有找到匹配的考试信息
                 throw new com.example.exam.exception.BusinessException(404, "未找到匹配的考试信息");
@@ -244,30 +355,49 @@ public class ExamController {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private SeatImportJobService seatImportJobService;
+
+    @Autowired
+    private SeatImportMetrics seatImportMetrics;
+
+    @Autowired
+    private SeatAvailabilityIndex seatAvailabilityIndex;
+
+    @Autowired
+    private SeatLookupIndex seatLookupIndex;
+
+    @Autowired
+    private SeatChartSnapshotService seatChartSnapshotService;
+
+    @Autowired
+    private ExamVersionTracker examVersionTracker;
+
+    @Autowired
+    private SeatChangeBroadcaster seatChangeBroadcaster;
+
     /**
      * 导出座位信息到Excel
      */
     @GetMapping("/export-seats")
-    public ResponseEntity<InputStreamResource> exportSeats(
+    public ResponseEntity<StreamingResponseBody> exportSeats(
             @RequestParam("room") String room,
             @RequestParam("timeRange") String timeRange,
             @RequestParam("date") String date) {
         try {
             // 解析时间范围
-            String[] times = timeRange.split(" ~ ");
-            if (times.length != 2) {
+            LocalTime[] times = TimeRangeUtils.parse(timeRange);
+            if (times == null) {
                 throw new BusinessException(400, "时间范围格式错误");
             }
-            
-            // 解析时间
-            LocalTime startTime = LocalTime.parse(times[0].trim());
-            LocalTime endTime = LocalTime.parse(times[1].trim());
+            LocalTime startTime = times[0];
+            LocalTime endTime = times[1];
             
             // 解析日期
             LocalDate examDate = LocalDate.parse(date);
             
-            // 获取Excel数据
-            ByteArrayInputStream in = seatService.exportSeatsToExcel(room, startTime, endTime, examDate);
+            // 获取Excel数据，文件内容在写响应时直接写入输出流
+            StreamingResponseBody body = seatService.streamSeatsToExcel(room, startTime, endTime, examDate);
             
             // 设置HTTP头
             HttpHeaders headers = new HttpHeaders();
@@ -281,7 +411,7 @@ public class ExamController {
                     .ok()
                     .headers(headers)
                     .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-                    .body(new InputStreamResource(in));
+                    .body(body);
         } catch (BusinessException e) {
             throw e;
         } catch (Exception e) {
@@ -302,20 +432,18 @@ public class ExamController {
             RedirectAttributes redirectAttributes) {
         try {
             // 解析时间范围
-            String[] times = timeRange.split(" ~ ");
-            if (times.length != 2) {
+            LocalTime[] times = TimeRangeUtils.parse(timeRange);
+            if (times == null) {
                 throw new BusinessException(400, "时间范围格式错误");
             }
-            
-            // 解析时间
-            LocalTime startTime = LocalTime.parse(times[0].trim());
-            LocalTime endTime = LocalTime.parse(times[1].trim());
+            LocalTime startTime = times[0];
+            LocalTime endTime = times[1];
             
             // 解析日期
             LocalDate examDate = LocalDate.parse(date);
             
             // 获取或创建考试信息
-            Optional<Exam> examOpt = examRepository.findByRoomAndStartTimeAndEndTimeAndExamDate(room, startTime, endTime, examDate);
+            Optional<Exam> examOpt = examService.findExamBySlot(room, startTime, endTime, examDate);
             Exam exam;
             
             if (!examOpt.isPresent()) {
@@ -331,36 +459,23 @@ public class ExamController {
                 exam.setNotes("通过Excel导入创建");
                 
                 // 保存考试信息
-                exam = examRepository.save(exam);
+                exam = examService.saveExam(exam);
             } else {
                 exam = examOpt.get();
-                // 删除该考试的现有座位信息，避免重复
-                seatRepository.deleteByExam(exam);
             }
             
-            // 解析Excel文件
-            List<SeatDTO> seatDTOs = seatService.parseExcel(file);
-            
-            if (seatDTOs.isEmpty()) {
-                redirectAttributes.addFlashAttribute("error", "Excel文件中没有有效的座位数据");
-                return "redirect:/exam";
-            }
-            
-            // 转换为Seat实体并保存
-            List<Seat> seats = new ArrayList<>();
-            for (SeatDTO dto : seatDTOs) {
-                Seat seat = new Seat();
-                seat.setSeatNumber(dto.getSeatNumber());
-                seat.setStudentName(dto.getStudentName());
-                seat.setAvailable(dto.isAvailable());
-                seat.setExam(exam);
-                seats.add(seat);
+            // 删除该考试的现有座位信息后，边解析Excel边分块写入，避免重复，任一环节失败时整体回滚
+            AtomicInteger rowsParsed = new AtomicInteger();
+            int saved;
+            try {
+                saved = seatService.importSeatsFromExcel(exam, file, true, rowsParsed::addAndGet);
+            } catch (BusinessException e) {
+                seatImportMetrics.rejected(SeatImportMetrics.SOURCE_IMPORT, rowsParsed.get());
+                throw e;
             }
+            seatImportMetrics.imported(SeatImportMetrics.SOURCE_IMPORT, saved);
             
-            // 保存座位信息
-            seatRepository.saveAll(seats);
-            
-            redirectAttributes.addFlashAttribute("success", "成功导入 " + seats.size() + " 条座位信息");
+            redirectAttributes.addFlashAttribute("success", "成功导入 " + saved + " 条座位信息");
             
             // 使用RedirectAttributes来传递参数，避免URL编码问题
             redirectAttributes.addAttribute("room", room);
@@ -377,4 +492,81 @@ public class ExamController {
             return "redirect:/exam";
         }
     }
+
+    /**
+     * 异步导入座位信息
+     * 文件落盘后立即返回任务信息，通过 /import-jobs/{id} 查询进度
+     */
+    @PostMapping("/import-seats/async")
+    @ResponseBody
+    public ResponseEntity<?> importSeatsAsync(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("room") String room,
+            @RequestParam("timeRange") String timeRange,
+            @RequestParam("date") String date,
+            @RequestParam("subject") String subject) {
+        try {
+            // 解析时间范围和日期
+            LocalTime[] times;
+            LocalDate examDate;
+            try {
+                times = TimeRangeUtils.parse(timeRange);
+                examDate = LocalDate.parse(date);
+            } catch (DateTimeParseException e) {
+                throw new BusinessException(400, "时间或日期格式不正确");
+            }
+            if (times == null) {
+                throw new BusinessException(400, "时间范围格式错误");
+            }
+            LocalTime startTime = times[0];
+            LocalTime endTime = times[1];
+            
+            // 获取或创建考试信息
+            Optional<Exam> examOpt = examService.findExamBySlot(room, startTime, endTime, examDate);
+            Exam exam;
+            if (!examOpt.isPresent()) {
+                exam = new Exam();
+                exam.setSubject(subject);
+                exam.setRoom(room);
+                exam.setExamType("闭卷"); // 默认考试类型
+                exam.setStartEndTime(timeRange);
+                exam.setStartTime(startTime);
+                exam.setEndTime(endTime);
+                exam.setExamDate(examDate);
+                exam.setNotes("通过Excel导入创建");
+                exam = examService.saveExam(exam);
+            } else {
+                exam = examOpt.get();
+            }
+            
+            SeatImportJob job = seatImportJobService.submit(file, exam, true);
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/import-jobs/" + job.getId())
+                    .body(job);
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getCode()).body(e.getMessage());
+        }
+    }
+
+    /**
+     * 按学生姓名查询考场和座位号，查询指定日期（默认当天）的全部考试，支持输入姓名的一部分
+     */
+    @GetMapping("/where")
+    @ResponseBody
+    public ResponseEntity<?> findSeat(
+            @RequestParam("name") String name,
+            @RequestParam(value = "date", required = false) String date,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (name == null || name.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body("学生姓名不能为空");
+        }
+        LocalDate examDate;
+        try {
+            examDate = date == null || date.isEmpty() ? LocalDate.now() : LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("考试日期格式不正确，请使用 yyyy-MM-dd 格式");
+        }
+        List<SeatLocationDTO> seats = seatLookupIndex.search(examDate, name, Math.max(1, Math.min(limit, 100)));
+        return ResponseEntity.ok(seats);
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.exam.controller;
+
+import com.example.exam.Service.SeatImportJob;
+import com.example.exam.Service.SeatImportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * 座位导入任务进度查询
+ */
+@Controller
+@RequestMapping("/import-jobs")
+public class ImportJobController {
+
+    @Autowired
+    private SeatImportJobService seatImportJobService;
+
+    /**
+     * 查询导入任务进度：已解析行数、已入库行数和错误信息
+     */
+    @GetMapping("/{id}")
+    @ResponseBody
+    public ResponseEntity<SeatImportJob> getJob(@PathVariable("id") String id) {
+        return seatImportJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 查询全部未结束的导入任务
+     */
+    @GetMapping
+    @ResponseBody
+    public List<SeatImportJob> getActiveJobs() {
+        return seatImportJobService.getActiveJobs();
+    }
+}
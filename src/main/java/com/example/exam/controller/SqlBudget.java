@@ -0,0 +1,33 @@
+package com.example.exam.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口单次请求允许的数据库访问量
+ * 数值按Hibernate统计信息计算（不含JdbcTemplate直接执行的批量写入），在集成测试中检查，
+ * 超出时测试失败，用于发现N+1查询和多余的查询。运行时不做任何处理
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * 最多执行的SQL语句数
+     */
+    int statements();
+
+    /**
+     * 最多加载的实体数，-1为不限制
+     */
+    int entities() default -1;
+
+    /**
+     * 最多初始化的集合数，-1为不限制
+     */
+    int collections() default -1;
+}
@@ -140,6 +140,7 @@ public class UserController {
      * 显示用户列表（仅管理员可访问）
      */
     @GetMapping("/list")
+    @SqlBudget(statements = 2, collections = 0)
     public String listUsers(Model model) {
         List<User> users = userService.getAllUsers();
         model.addAttribute("users", users);
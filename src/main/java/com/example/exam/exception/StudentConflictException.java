@@ -0,0 +1,26 @@
+package com.example.exam.exception;
+
+import com.example.exam.DTO.StudentConflictReport;
+
+/**
+ * 学生跨考试冲突异常
+ * 除了面向用户的消息外，保留完整的冲突列表，供导入任务逐个记录冲突的学生
+ */
+public class StudentConflictException extends BusinessException {
+
+    private final StudentConflictReport report;
+
+    public StudentConflictException(StudentConflictReport report) {
+        super(409, report.toMessage());
+        this.report = report;
+    }
+
+    /**
+     * 获取冲突列表
+     *
+     * @return 冲突列表
+     */
+    public StudentConflictReport getReport() {
+        return report;
+    }
+}
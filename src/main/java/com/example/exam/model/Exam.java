@@ -11,7 +11,10 @@ import java.util.List;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "exam")
+@Table(name = "exam", indexes = {
+        // 覆盖按试室和时段查询考试的条件
+        @Index(name = "idx_exam_slot", columnList = "room, exam_date, start_time, end_time")
+})
 public class Exam {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,6 +3,10 @@ package com.example.exam.model;
 import jakarta.persistence.*;
 
 @Entity
+@Table(name = "seat", uniqueConstraints = {
+        // 同一考试中座位号唯一
+        @UniqueConstraint(name = "uk_exam_seat", columnNames = {"exam_id", "seat_number"})
+})
 public class Seat {
 
     @Id
@@ -13,7 +17,7 @@ public class Seat {
     private String studentName;    // 学生姓名
     private Boolean available;     // 座位是否可用
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "exam_id" ,nullable = false)  // 外键关联到Exam表
     private Exam exam;             // 该座位属于哪个考试
 
@@ -0,0 +1,54 @@
+package com.example.exam.respository;
+
+import com.example.exam.model.Seat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 座位批量写入
+ * Seat使用IDENTITY主键，Hibernate会为每个实体单独执行INSERT，无法利用JDBC批处理；
+ * 这里直接使用JdbcTemplate.batchUpdate，配合连接串中的rewriteBatchedStatements=true合并为多值INSERT
+ */
+@Repository
+public class SeatJdbcRepository {
+
+    // 每批提交的行数
+    static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO seat (exam_id, seat_number, student_name, available) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量插入座位
+     * @param examId 考试ID
+     * @param seats 座位列表
+     * @return 插入的行数
+     */
+    public int batchInsert(Long examId, List<Seat> seats) {
+        if (seats.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, seats, BATCH_SIZE, (ps, seat) -> {
+            ps.setLong(1, examId);
+            if (seat.getSeatNumber() != null) {
+                ps.setInt(2, seat.getSeatNumber());
+            } else {
+                ps.setNull(2, Types.INTEGER);
+            }
+            ps.setString(3, seat.getStudentName());
+            if (seat.getAvailable() != null) {
+                ps.setBoolean(4, seat.getAvailable());
+            } else {
+                ps.setNull(4, Types.BOOLEAN);
+            }
+        });
+        return seats.size();
+    }
+}
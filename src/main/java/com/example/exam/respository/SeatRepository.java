@@ -1,5 +1,6 @@
 package com.example.exam.respository;
 
+import com.example.exam.DTO.SeatRowDTO;
 import com.example.exam.model.Exam;
 import com.example.exam.model.Seat;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -26,6 +27,28 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
                                                 @Param("endTime") LocalTime endTime,
                                                 @Param("examDate") LocalDate examDate);
 
+    // 座位表、导出使用的行数据投影，按座位号排序
+    @Query("SELECT new com.example.exam.DTO.SeatRowDTO(s.seatNumber, s.studentName, s.available) " +
+            "FROM Seat s WHERE s.exam.id = :examId ORDER BY s.seatNumber")
+    List<SeatRowDTO> findSeatRowsByExamId(@Param("examId") Long examId);
+
+    @Query("SELECT new com.example.exam.DTO.SeatRowDTO(s.seatNumber, s.studentName, s.available) " +
+            "FROM Seat s JOIN s.exam e WHERE e.room = :room AND e.startTime = :startTime AND e.endTime = :endTime " +
+            "AND e.examDate = :examDate AND e.subject = :subject ORDER BY s.seatNumber")
+    List<SeatRowDTO> findSeatRowsByExamRoomAndTimeAndDate(@Param("room") String room,
+                                                          @Param("startTime") LocalTime startTime,
+                                                          @Param("endTime") LocalTime endTime,
+                                                          @Param("examDate") LocalDate examDate,
+                                                          @Param("subject") String subject);
+
+    // 按试室和座位号查找座位，同时抓取关联的考试
+    @Query("SELECT s FROM Seat s JOIN FETCH s.exam e WHERE e.room = :room AND s.seatNumber = :seatNumber")
+    Seat findWithExamByRoomAndSeatNumber(@Param("room") String room, @Param("seatNumber") Integer seatNumber);
+
+    // 只查询座位号，用于座位号冲突校验，避免加载完整的座位实体
+    @Query("SELECT s.seatNumber FROM Seat s WHERE s.exam.id = :examId")
+    List<Integer> findSeatNumbersByExamId(@Param("examId") Long examId);
+
     Seat findByExamRoomAndSeatNumber(String room, Integer seatNumber);
     List<Seat> findByExam(Exam exam);
     List<Seat> findByExam_Room(String room);
@@ -33,4 +56,10 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
     @Modifying
     @Transactional
     void deleteByExam(Exam exam);
+
+    // 单条DELETE语句删除考试的全部座位，不先加载实体
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Seat s WHERE s.exam.id = :examId")
+    int deleteByExamId(@Param("examId") Long examId);
 }
@@ -1,157 +1,470 @@
 package com.example.exam.utils;
 
 import com.example.exam.DTO.SeatDTO;
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.DTO.SheetSeatsDTO;
 import com.example.exam.model.Exam;
-import com.example.exam.model.Seat;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class ExcelUtils {
 
+    // 导出时内存中保留的行数，超出的行会被刷写到临时文件
+    private static final int EXPORT_ROW_WINDOW = 100;
+
+    // 导出文件第一行的考试信息，例如：考试信息：数学 - A101 - 2025-01-06 08:40~10:40
+    private static final Pattern EXAM_INFO_PATTERN = Pattern.compile(
+            "考试信息[：:]\\s*(.+?)\\s+-\\s+(.+?)\\s+-\\s+(\\d{4}-\\d{2}-\\d{2})\\s+(\\d{1,2}:\\d{2})\\s*~\\s*(\\d{1,2}:\\d{2})");
+
+    // 工作表名称中的考试时段（工作表名称不能包含冒号），例如：数学_A101_20250106_0840-1040 或 A101_20250106_0840-1040
+    private static final Pattern SHEET_NAME_PATTERN = Pattern.compile(
+            "(?:(.+)_)?([^_]+)_(\\d{8})_(\\d{4})-(\\d{4})");
+
     /**
-     * 从Excel文件导入座位数据
+     * 将上传文件写入临时文件，调用方负责在使用完毕后删除
+     * @param file 上传的文件
+     * @return 临时文件
+     */
+    public static File spoolToTempFile(MultipartFile file) throws IOException {
+        File tempFile = File.createTempFile("seat-import-", ".tmp");
+        try (InputStream is = file.getInputStream()) {
+            Files.copy(is, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile.toPath());
+            throw e;
+        }
+        return tempFile;
+    }
+
+    /**
+     * 流式读取Excel第一个工作表中的座位数据，每解析出一行就交给consumer处理
+     * xlsx文件通过SAX事件模型解析，内存占用与文件大小无关；旧版xls文件退回到普通模型解析
      * @param file Excel文件
-     * @return 座位数据列表
+     * @param consumer 座位数据处理器
+     * @return 解析出的座位数量
      */
-    public static List<SeatDTO> importSeatsFromExcel(MultipartFile file) throws IOException {
-        List<SeatDTO> seats = new ArrayList<>();
-        
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = WorkbookFactory.create(is)) {
-            
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rows = sheet.iterator();
-            
-            // 跳过标题行
-            if (rows.hasNext()) {
-                rows.next();
-            }
-            
-            while (rows.hasNext()) {
-                Row currentRow = rows.next();
-                
-                // 检查行是否为空
-                if (isRowEmpty(currentRow)) {
-                    continue;
-                }
-                
-                SeatDTO seat = new SeatDTO();
-                
-                // 读取座位号
-                Cell seatNumberCell = currentRow.getCell(0);
-                if (seatNumberCell != null) {
-                    if (seatNumberCell.getCellType() == CellType.NUMERIC) {
-                        seat.setSeatNumber((int) seatNumberCell.getNumericCellValue());
-                    } else if (seatNumberCell.getCellType() == CellType.STRING) {
-                        try {
-                            seat.setSeatNumber(Integer.parseInt(seatNumberCell.getStringCellValue().trim()));
-                        } catch (NumberFormatException e) {
-                            // 如果无法解析为数字，则跳过该行
-                            continue;
-                        }
-                    }
-                }
-                
-                // 读取学生姓名
-                Cell studentNameCell = currentRow.getCell(1);
-                if (studentNameCell != null) {
-                    seat.setStudentName(studentNameCell.getStringCellValue().trim());
-                }
-                
-                // 读取是否可用
-                Cell availableCell = currentRow.getCell(2);
-                boolean isAvailable = true; // 默认可用
-                
-                if (availableCell != null) {
-                    if (availableCell.getCellType() == CellType.BOOLEAN) {
-                        isAvailable = availableCell.getBooleanCellValue();
-                    } else if (availableCell.getCellType() == CellType.STRING) {
-                        String value = availableCell.getStringCellValue().trim().toLowerCase();
-                        isAvailable = "true".equals(value) || "是".equals(value) || "可用".equals(value);
-                    }
+    public static int streamSeatsFromExcel(File file, Consumer<SeatDTO> consumer) throws IOException {
+        if (FileMagic.valueOf(file) != FileMagic.OOXML) {
+            return readSeatsFromWorkbook(file, consumer);
+        }
+
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return 0;
+            }
+
+            SeatRowHandler handler = new SeatRowHandler(consumer);
+            try (InputStream sheet = sheets.next()) {
+                parseSheet(sheet, styles, strings, handler);
+            }
+            return handler.getCount();
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("无法解析Excel文件: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 一次流式读取工作簿中的全部工作表，每解析完一个工作表就交给consumer处理
+     * 工作表对应的考试时段优先取第一行的考试信息（与导出格式一致），其次取工作表名称
+     * @param file Excel文件
+     * @param consumer 工作表数据处理器
+     * @return 工作表数量
+     */
+    public static int streamSheetsFromExcel(File file, Consumer<SheetSeatsDTO> consumer) throws IOException {
+        if (FileMagic.valueOf(file) != FileMagic.OOXML) {
+            return readSheetsFromWorkbook(file, consumer);
+        }
+
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            int sheetCount = 0;
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                SheetSeatsDTO sheetSeats = new SheetSeatsDTO();
+                SeatRowHandler handler = new SeatRowHandler(sheetSeats.getSeats()::add);
+                try (InputStream sheet = sheets.next()) {
+                    sheetSeats.setSheetName(sheets.getSheetName());
+                    parseSheet(sheet, styles, strings, handler);
                 }
-                
-                seat.setAvailable(isAvailable);
-                
-                seats.add(seat);
+                resolveSlot(sheetSeats, handler.getHeaderText());
+                consumer.accept(sheetSeats);
+                sheetCount++;
+            }
+            return sheetCount;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("无法解析Excel文件: " + e.getMessage(), e);
+        }
+    }
+
+    private static void parseSheet(InputStream sheet, StylesTable styles, ReadOnlySharedStringsTable strings,
+                                   SeatRowHandler handler) throws IOException, SAXException, ParserConfigurationException {
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, handler, new DataFormatter(), false));
+        parser.parse(new InputSource(sheet));
+    }
+
+    /**
+     * 识别工作表对应的考试时段，先匹配第一行的考试信息，再匹配工作表名称；
+     * 考试信息中的日期或时间不合法时继续尝试工作表名称，两者都无法识别时不设置考试时段
+     */
+    private static void resolveSlot(SheetSeatsDTO sheetSeats, String headerText) {
+        if (headerText != null) {
+            Matcher matcher = EXAM_INFO_PATTERN.matcher(headerText.trim());
+            if (matcher.matches() && applySlot(sheetSeats, matcher,
+                    DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("H:mm"))) {
+                return;
+            }
+        }
+        if (sheetSeats.getSheetName() != null) {
+            Matcher matcher = SHEET_NAME_PATTERN.matcher(sheetSeats.getSheetName().trim());
+            if (matcher.matches()) {
+                applySlot(sheetSeats, matcher, DateTimeFormatter.BASIC_ISO_DATE, DateTimeFormatter.ofPattern("HHmm"));
             }
         }
-        
-        return seats;
     }
-    
+
+    /**
+     * 按匹配结果（科目、试室、日期、开始时间、结束时间）设置考试时段
+     * @return 日期或时间不合法时返回false，工作表保持未识别
+     */
+    private static boolean applySlot(SheetSeatsDTO sheetSeats, Matcher matcher,
+                                     DateTimeFormatter dateFormatter, DateTimeFormatter timeFormatter) {
+        LocalDate examDate;
+        LocalTime startTime;
+        LocalTime endTime;
+        try {
+            examDate = LocalDate.parse(matcher.group(3), dateFormatter);
+            startTime = LocalTime.parse(matcher.group(4), timeFormatter);
+            endTime = LocalTime.parse(matcher.group(5), timeFormatter);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+        sheetSeats.setSubject(matcher.group(1));
+        sheetSeats.setRoom(matcher.group(2));
+        sheetSeats.setExamDate(examDate);
+        sheetSeats.setStartTime(startTime);
+        sheetSeats.setEndTime(endTime);
+        return true;
+    }
+
+    /**
+     * 使用普通模型读取旧版xls文件
+     */
+    private static int readSeatsFromWorkbook(File file, Consumer<SeatDTO> consumer) throws IOException {
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            return readSheet(workbook.getSheetAt(0), new DataFormatter(), consumer);
+        }
+    }
+
     /**
-     * 导出座位数据到Excel
+     * 使用普通模型读取旧版xls文件的全部工作表
+     */
+    private static int readSheetsFromWorkbook(File file, Consumer<SheetSeatsDTO> consumer) throws IOException {
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            DataFormatter formatter = new DataFormatter();
+            for (Sheet sheet : workbook) {
+                SheetSeatsDTO sheetSeats = new SheetSeatsDTO();
+                sheetSeats.setSheetName(sheet.getSheetName());
+                readSheet(sheet, formatter, sheetSeats.getSeats()::add);
+                Row firstRow = sheet.getRow(sheet.getFirstRowNum());
+                resolveSlot(sheetSeats, firstRow != null ? cellText(firstRow.getCell(0), formatter) : null);
+                consumer.accept(sheetSeats);
+            }
+            return workbook.getNumberOfSheets();
+        }
+    }
+
+    private static int readSheet(Sheet sheet, DataFormatter formatter, Consumer<SeatDTO> consumer) {
+        int count = 0;
+        Iterator<Row> rows = sheet.iterator();
+
+        // 跳过标题行
+        if (rows.hasNext()) {
+            rows.next();
+        }
+
+        while (rows.hasNext()) {
+            Row currentRow = rows.next();
+
+            // 检查行是否为空
+            if (isRowEmpty(currentRow)) {
+                continue;
+            }
+
+            SeatDTO seat = toSeat(
+                    cellText(currentRow.getCell(0), formatter),
+                    cellText(currentRow.getCell(1), formatter),
+                    cellText(currentRow.getCell(2), formatter));
+            if (seat != null) {
+                consumer.accept(seat);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static String cellText(Cell cell, DataFormatter formatter) {
+        if (cell == null || cell.getCellType() == CellType.BLANK) {
+            return null;
+        }
+        return formatter.formatCellValue(cell);
+    }
+
+    /**
+     * 将一行的三列文本转换为座位数据
+     * @return 座位数据，座位号无法解析时返回null表示跳过该行
+     */
+    private static SeatDTO toSeat(String seatNumberText, String studentNameText, String availableText) {
+        SeatDTO seat = new SeatDTO();
+
+        // 读取座位号
+        if (seatNumberText != null) {
+            Integer seatNumber = parseSeatNumber(seatNumberText);
+            if (seatNumber == null) {
+                // 如果无法解析为数字，则跳过该行
+                return null;
+            }
+            seat.setSeatNumber(seatNumber);
+        }
+
+        // 读取学生姓名
+        if (studentNameText != null) {
+            seat.setStudentName(studentNameText.trim());
+        }
+
+        // 读取是否可用
+        seat.setAvailable(parseAvailable(availableText));
+        return seat;
+    }
+
+    private static Integer parseSeatNumber(String text) {
+        String value = text.trim();
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            try {
+                // 数值单元格可能被格式化为小数
+                return (int) Double.parseDouble(value);
+            } catch (NumberFormatException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static boolean parseAvailable(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return true; // 默认可用
+        }
+        String value = text.trim().toLowerCase();
+        if (isNumeric(value)) {
+            return true; // 数值单元格不表达可用状态，保持默认值
+        }
+        return "true".equals(value) || "是".equals(value) || "可用".equals(value);
+    }
+
+    private static boolean isNumeric(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * SAX行处理器：跳过标题行，按列收集单元格文本，行结束时生成座位数据
+     */
+    private static class SeatRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<SeatDTO> consumer;
+        private final String[] values = new String[3];
+        private boolean headerSkipped;
+        private String headerText;
+        private boolean skipRow;
+        private boolean rowHasValue;
+        private int nextColumn;
+        private int count;
+
+        SeatRowHandler(Consumer<SeatDTO> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            // 跳过标题行
+            skipRow = !headerSkipped;
+            headerSkipped = true;
+            rowHasValue = false;
+            nextColumn = 0;
+            values[0] = null;
+            values[1] = null;
+            values[2] = null;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = column + 1;
+            if (skipRow && column == 0) {
+                // 记录标题行第一列，用于识别工作表对应的考试
+                headerText = formattedValue;
+            }
+            if (skipRow || formattedValue == null || formattedValue.isEmpty()) {
+                return;
+            }
+            rowHasValue = true;
+            if (column < values.length) {
+                values[column] = formattedValue;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // 检查行是否为空
+            if (skipRow || !rowHasValue) {
+                return;
+            }
+            SeatDTO seat = toSeat(values[0], values[1], values[2]);
+            if (seat != null) {
+                consumer.accept(seat);
+                count++;
+            }
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        String getHeaderText() {
+            return headerText;
+        }
+    }
+
+    /**
+     * 以流式方式将座位数据写入输出流
+     * 使用SXSSF只在内存中保留固定窗口的行，其余行刷写到临时文件；列宽预先计算，不调用autoSizeColumn
      * @param seats 座位列表
      * @param exam 考试信息
-     * @return Excel文件的字节数组输入流
+     * @param out 输出流，由调用方负责关闭
      */
-    public static ByteArrayInputStream exportSeatsToExcel(List<Seat> seats, Exam exam) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            
+    public static void writeSeatsToExcel(List<SeatRowDTO> seats, Exam exam, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXPORT_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("座位信息");
-            
+
             // 创建标题样式
             CellStyle headerStyle = workbook.createCellStyle();
             Font headerFont = workbook.createFont();
             headerFont.setBold(true);
             headerStyle.setFont(headerFont);
-            
+
             // 创建考试信息行
             Row examInfoRow = sheet.createRow(0);
             Cell examInfoCell = examInfoRow.createCell(0);
-            examInfoCell.setCellValue("考试信息：" + exam.getSubject() + " - " + exam.getRoom() + " - " + 
+            examInfoCell.setCellValue("考试信息：" + exam.getSubject() + " - " + exam.getRoom() + " - " +
                     exam.getExamDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + " " +
                     exam.getStartTime().format(DateTimeFormatter.ofPattern("HH:mm")) + "~" +
                     exam.getEndTime().format(DateTimeFormatter.ofPattern("HH:mm")));
-            
+
             // 创建标题行
             Row headerRow = sheet.createRow(1);
-            headerRow.createCell(0).setCellValue("座位号");
-            headerRow.createCell(1).setCellValue("学生姓名");
-            headerRow.createCell(2).setCellValue("是否可用");
-            
-            // 应用标题样式
-            for (int i = 0; i < 3; i++) {
-                headerRow.getCell(i).setCellStyle(headerStyle);
-            }
-            
+            String[] headers = {"座位号", "学生姓名", "是否可用"};
+            int[] widths = new int[headers.length];
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(headerStyle);
+                widths[i] = displayWidth(headers[i]);
+            }
+
+            // 预先计算列宽，代替逐单元格测量的autoSizeColumn
+            for (SeatRowDTO seat : seats) {
+                widths[0] = Math.max(widths[0], String.valueOf(seat.getSeatNumber()).length());
+                if (seat.getStudentName() != null) {
+                    widths[1] = Math.max(widths[1], displayWidth(seat.getStudentName()));
+                }
+            }
+            for (int i = 0; i < widths.length; i++) {
+                sheet.setColumnWidth(i, Math.min(widths[i] + 2, 255) * 256);
+            }
+
             // 填充数据
             int rowNum = 2;
-            for (Seat seat : seats) {
+            for (SeatRowDTO seat : seats) {
                 Row row = sheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(seat.getSeatNumber());
-                
+
                 if (seat.getStudentName() != null && !seat.getStudentName().isEmpty()) {
                     row.createCell(1).setCellValue(seat.getStudentName());
                 } else {
                     row.createCell(1).setCellValue("");
                 }
-                
+
                 row.createCell(2).setCellValue(seat.getAvailable() != null && seat.getAvailable() ? "是" : "否");
             }
-            
-            // 自动调整列宽
-            for (int i = 0; i < 3; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
+
             workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
+            out.flush();
+        } finally {
+            // 删除SXSSF产生的临时文件
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * 估算文本显示宽度，全角字符按两个字符计算
+     */
+    private static int displayWidth(String text) {
+        int width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            width += text.charAt(i) > 0xFF ? 2 : 1;
         }
+        return width;
     }
-    
+
     /**
      * 检查行是否为空
      */
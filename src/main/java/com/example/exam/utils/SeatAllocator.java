@@ -0,0 +1,224 @@
+package com.example.exam.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 自动排座求解器
+ * 试室按 rows × cols 网格排列，座位号按行优先从1开始编号。
+ * 学生以班级编号和科目编号表示，按(班级, 科目)分组后逐个座位贪心分配：
+ * 每个座位从满足约束的分组中选择剩余人数最多的一组，满足不了约束的座位留空。
+ * 约束包括：
+ * 同班学生之间的切比雪夫距离不小于 minClassDistance（1表示不限制，2表示前后左右及斜对角都不能同班）；
+ * alternateSubjects 为 true 时前后左右相邻座位的科目不同；
+ * 最多使用 maxSeats 个座位。
+ * 班级、科目编号先按出现顺序压缩为连续下标，分组用HashMap，内存只随学生数增长，与编号大小无关；
+ * 逐个座位求解的过程只使用基本类型数组，不为座位或学生创建对象。
+ */
+public final class SeatAllocator {
+
+    // 空座位
+    public static final int EMPTY = -1;
+
+    // 不可用的座位
+    public static final int BLOCKED = -2;
+
+    // 单个试室最多的座位数（rows × cols），与座位号位图的上限一致
+    public static final int MAX_SEATS = 1 << 16;
+
+    private SeatAllocator() {
+    }
+
+    /**
+     * 分配座位
+     * @param rows 行数
+     * @param cols 列数
+     * @param blocked 不可用座位，下标为 座位号-1，可以为null
+     * @param maxSeats 最多使用的座位数，小于等于0表示不限制
+     * @param studentClass 每个学生的班级编号，从0开始
+     * @param studentSubject 每个学生的科目编号，从0开始
+     * @param minClassDistance 同班学生之间的最小切比雪夫距离
+     * @param alternateSubjects 相邻座位是否必须科目不同
+     * @return 下标为 座位号-1 的学生下标数组，空座位为 EMPTY，不可用座位为 BLOCKED
+     * @throws IllegalArgumentException 行数或列数不大于0，或座位数超过 MAX_SEATS
+     */
+    public static int[] allocate(int rows, int cols, boolean[] blocked, int maxSeats,
+                                 int[] studentClass, int[] studentSubject,
+                                 int minClassDistance, boolean alternateSubjects) {
+        int seatCount = seatCount(rows, cols);
+        int studentCount = studentClass.length;
+        int[] seatStudent = new int[seatCount];
+        Arrays.fill(seatStudent, EMPTY);
+
+        // 班级、科目编号压缩为连续下标，编号很大或很稀疏时禁止标记数组也只按实际出现的个数分配
+        int[] denseClass = new int[studentCount];
+        int[] denseSubject = new int[studentCount];
+        int classCount = densify(studentClass, denseClass);
+        int subjectCount = densify(studentSubject, denseSubject);
+
+        // 按(班级, 科目)分组，groupStudents中同组学生连续存放
+        Map<Long, Integer> groupOf = new HashMap<>();
+        int[] studentGroup = new int[studentCount];
+        for (int i = 0; i < studentCount; i++) {
+            long key = (long) denseClass[i] * subjectCount + denseSubject[i];
+            Integer group = groupOf.get(key);
+            if (group == null) {
+                group = groupOf.size();
+                groupOf.put(key, group);
+            }
+            studentGroup[i] = group;
+        }
+        int groupCount = groupOf.size();
+        int[] groupClass = new int[groupCount];
+        int[] groupSubject = new int[groupCount];
+        int[] groupNext = new int[groupCount + 1];
+        for (int i = 0; i < studentCount; i++) {
+            int g = studentGroup[i];
+            groupClass[g] = denseClass[i];
+            groupSubject[g] = denseSubject[i];
+            groupNext[g + 1]++;
+        }
+        for (int g = 0; g < groupCount; g++) {
+            groupNext[g + 1] += groupNext[g];
+        }
+        int[] groupEnd = Arrays.copyOfRange(groupNext, 1, groupCount + 1);
+        int[] groupStudents = new int[studentCount];
+        int[] fill = Arrays.copyOf(groupNext, groupCount);
+        for (int i = 0; i < studentCount; i++) {
+            groupStudents[fill[studentGroup[i]]++] = i;
+        }
+
+        int[] seatClass = new int[seatCount];
+        int[] seatSubject = new int[seatCount];
+        Arrays.fill(seatClass, -1);
+        Arrays.fill(seatSubject, -1);
+
+        // 记录当前座位禁止的班级和科目，值为 座位下标+1，避免每个座位清空数组
+        int[] classStamp = new int[classCount];
+        int[] subjectStamp = new int[subjectCount];
+
+        int radius = Math.max(minClassDistance, 1) - 1;
+        int limit = maxSeats > 0 ? Math.min(maxSeats, studentCount) : studentCount;
+        int assigned = 0;
+
+        for (int seat = 0; seat < seatCount; seat++) {
+            if (blocked != null && blocked[seat]) {
+                seatStudent[seat] = BLOCKED;
+                continue;
+            }
+            if (assigned >= limit) {
+                continue;
+            }
+            int row = seat / cols;
+            int col = seat % cols;
+            int stamp = seat + 1;
+
+            // 标记距离范围内已分配的班级
+            if (radius > 0) {
+                for (int r = Math.max(0, row - radius); r <= Math.min(rows - 1, row + radius); r++) {
+                    for (int c = Math.max(0, col - radius); c <= Math.min(cols - 1, col + radius); c++) {
+                        int other = seatClass[r * cols + c];
+                        if (other >= 0) {
+                            classStamp[other] = stamp;
+                        }
+                    }
+                }
+            }
+
+            // 标记前后左右已分配的科目
+            if (alternateSubjects) {
+                markSubject(seatSubject, subjectStamp, stamp, row > 0 ? seat - cols : -1);
+                markSubject(seatSubject, subjectStamp, stamp, row < rows - 1 ? seat + cols : -1);
+                markSubject(seatSubject, subjectStamp, stamp, col > 0 ? seat - 1 : -1);
+                markSubject(seatSubject, subjectStamp, stamp, col < cols - 1 ? seat + 1 : -1);
+            }
+
+            // 选择满足约束且剩余人数最多的分组
+            int best = -1;
+            int bestRemaining = 0;
+            for (int g = 0; g < groupCount; g++) {
+                int remaining = groupEnd[g] - groupNext[g];
+                if (remaining > bestRemaining
+                        && classStamp[groupClass[g]] != stamp
+                        && subjectStamp[groupSubject[g]] != stamp) {
+                    best = g;
+                    bestRemaining = remaining;
+                }
+            }
+            if (best < 0) {
+                continue;
+            }
+
+            int student = groupStudents[groupNext[best]++];
+            seatStudent[seat] = student;
+            seatClass[seat] = groupClass[best];
+            seatSubject[seat] = groupSubject[best];
+            assigned++;
+        }
+        return seatStudent;
+    }
+
+    /**
+     * 试室的座位数 rows × cols
+     * @throws IllegalArgumentException 行数或列数不大于0，或座位数超过 MAX_SEATS
+     */
+    public static int seatCount(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("行数和列数必须大于0");
+        }
+        int seatCount;
+        try {
+            seatCount = Math.multiplyExact(rows, cols);
+        } catch (ArithmeticException e) {
+            seatCount = Integer.MAX_VALUE;
+        }
+        if (seatCount > MAX_SEATS) {
+            throw new IllegalArgumentException(rows + " 行 " + cols + " 列的座位数超过上限 " + MAX_SEATS);
+        }
+        return seatCount;
+    }
+
+    /**
+     * 统计已分配的学生数
+     */
+    public static int countAssigned(int[] seatStudent) {
+        int count = 0;
+        for (int student : seatStudent) {
+            if (student >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void markSubject(int[] seatSubject, int[] subjectStamp, int stamp, int neighbour) {
+        if (neighbour >= 0 && seatSubject[neighbour] >= 0) {
+            subjectStamp[seatSubject[neighbour]] = stamp;
+        }
+    }
+
+    /**
+     * 按出现顺序把编号压缩为从0开始的连续下标
+     * @param values 编号
+     * @param dense 输出的连续下标，与 values 等长
+     * @return 不同编号的个数
+     * @throws IllegalArgumentException 编号为负数
+     */
+    private static int densify(int[] values, int[] dense) {
+        Map<Integer, Integer> index = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            int value = values[i];
+            if (value < 0) {
+                throw new IllegalArgumentException("编号不能为负数: " + value);
+            }
+            Integer id = index.get(value);
+            if (id == null) {
+                id = index.size();
+                index.put(value, id);
+            }
+            dense[i] = id;
+        }
+        return index.size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.exam.utils;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 座位号集合
+ * 0到65535号座位记在位图中，负数和超大的座位号极少出现，退回到HashSet，避免按座位号分配过大的位图。
+ * 座位号冲突校验（SeatService.findSeatConflicts）和流式导入的逐行校验共用
+ */
+public final class SeatNumberSet {
+
+    // 位图能记录的座位号上限（不含），与座位空闲位图的上限一致
+    public static final int MAX_BITMAP_SEAT_NUMBER = 1 << 16;
+
+    private final BitSet bitmap = new BitSet();
+    private final Set<Integer> outOfRange = new HashSet<>();
+
+    /**
+     * 加入座位号
+     * @param number 座位号
+     * @return 座位号原先不在集合中时返回true
+     */
+    public boolean add(int number) {
+        if (inBitmapRange(number)) {
+            boolean added = !bitmap.get(number);
+            bitmap.set(number);
+            return added;
+        }
+        return outOfRange.add(number);
+    }
+
+    /**
+     * 座位号是否在集合中
+     * @param number 座位号
+     * @return 在集合中时返回true
+     */
+    public boolean contains(int number) {
+        if (inBitmapRange(number)) {
+            return bitmap.get(number);
+        }
+        return outOfRange.contains(number);
+    }
+
+    private static boolean inBitmapRange(int number) {
+        return number >= 0 && number < MAX_BITMAP_SEAT_NUMBER;
+    }
+}
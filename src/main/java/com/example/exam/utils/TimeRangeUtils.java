@@ -0,0 +1,59 @@
+package com.example.exam.utils;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 考试时间范围解析工具
+ * 时间范围格式为 "HH:mm ~ HH:mm"，座位表等高频接口每次请求都要解析。
+ * 常见的 "HH:mm" 直接按字符计算，不经过正则拆分和DateTimeFormatter；其他格式交给 LocalTime.parse，
+ * 结果和抛出的异常与 LocalTime.parse 一致
+ */
+public final class TimeRangeUtils {
+
+    private TimeRangeUtils() {
+    }
+
+    /**
+     * 解析时间范围
+     * @param timeRange 形如 "08:40 ~ 10:40" 的时间范围，"~" 两侧的空白可有可无
+     * @return 长度为2的数组，依次为开始时间和结束时间；不是以 "~" 分隔的两段时返回null
+     * @throws DateTimeParseException 时间格式不正确
+     */
+    public static LocalTime[] parse(String timeRange) {
+        if (timeRange == null) {
+            return null;
+        }
+        int separator = timeRange.indexOf('~');
+        if (separator < 0 || timeRange.indexOf('~', separator + 1) >= 0) {
+            return null;
+        }
+        return new LocalTime[]{
+                parseTime(timeRange.substring(0, separator).trim()),
+                parseTime(timeRange.substring(separator + 1).trim())
+        };
+    }
+
+    /**
+     * 解析单个时间，与 LocalTime.parse 结果一致
+     * @throws DateTimeParseException 时间格式不正确
+     */
+    public static LocalTime parseTime(String text) {
+        if (text.length() == 5 && text.charAt(2) == ':') {
+            int hour = digits(text.charAt(0), text.charAt(1));
+            int minute = digits(text.charAt(3), text.charAt(4));
+            if (hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59) {
+                return LocalTime.of(hour, minute);
+            }
+        }
+        return LocalTime.parse(text);
+    }
+
+    // 两位数字，不是数字时返回-1
+    private static int digits(char tens, char ones) {
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+}
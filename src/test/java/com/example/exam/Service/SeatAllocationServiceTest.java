@@ -0,0 +1,97 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatAllocationRequestDTO;
+import com.example.exam.DTO.StudentDTO;
+import com.example.exam.exception.BusinessException;
+import com.example.exam.model.Exam;
+import com.example.exam.model.Seat;
+import com.example.exam.support.ExamFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 自动排座服务测试
+ * 布局校验、可用座位数不足和约束过严时返回400，不会按请求中的行列分配过大的数组
+ */
+class SeatAllocationServiceTest {
+
+    private final SeatService seatService = new SeatService();
+
+    private final Exam exam = ExamFixtures.exam("N801", "大学英语", LocalDate.of(2025, 9, 1),
+            LocalTime.of(9, 0), LocalTime.of(11, 0));
+
+    @Test
+    void allocatesSeatsAroundBlockedSeat() {
+        SeatAllocationRequestDTO request = layout(2, 3);
+        request.setBlockedSeats(List.of(2));
+
+        List<Seat> seats = seatService.allocateSeats(exam, request, students(4, 4));
+
+        assertEquals(6, seats.size());
+        assertFalse(seats.get(1).getAvailable());
+        assertNull(seats.get(1).getStudentName());
+        assertEquals(4, seats.stream().filter(seat -> seat.getStudentName() != null).count());
+    }
+
+    @Test
+    void rejectsMoreStudentsThanCapacity() {
+        SeatAllocationRequestDTO request = layout(2, 2);
+        request.setBlockedSeats(List.of(1));
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> seatService.allocateSeats(exam, request, students(4, 4)));
+        assertEquals(400, e.getCode());
+        assertTrue(e.getMessage().contains("超过试室可用座位数 3"));
+    }
+
+    @Test
+    void rejectsConstraintsThatLeaveStudentsUnseated() {
+        // 2×2的试室中同班学生两两相邻，最小间距为2时只能坐下一人
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> seatService.allocateSeats(exam, layout(2, 2), students(3, 1)));
+        assertEquals(400, e.getCode());
+        assertTrue(e.getMessage().contains("约束条件过严，有 2 名学生"));
+    }
+
+    @Test
+    void rejectsOversizedAndOverflowingLayouts() {
+        // 257×256 超过 65536 个座位，65536×65536 和 Integer.MAX_VALUE×2 相乘溢出
+        for (int[] size : new int[][]{{257, 256}, {65536, 65536}, {Integer.MAX_VALUE, 2}}) {
+            SeatAllocationRequestDTO request = layout(size[0], size[1]);
+            BusinessException e = assertThrows(BusinessException.class,
+                    () -> seatService.allocateSeats(exam, request, students(1, 1)), Arrays.toString(size));
+            assertEquals(400, e.getCode());
+            assertThrows(BusinessException.class, () -> seatService.seatCapacity(request), Arrays.toString(size));
+        }
+        assertEquals(400, assertThrows(BusinessException.class,
+                () -> seatService.allocateSeats(exam, layout(0, 5), students(1, 1))).getCode());
+        assertEquals(65536, seatService.seatCapacity(layout(256, 256)));
+    }
+
+    private static SeatAllocationRequestDTO layout(int rows, int cols) {
+        SeatAllocationRequestDTO request = new SeatAllocationRequestDTO();
+        request.setRows(rows);
+        request.setCols(cols);
+        return request;
+    }
+
+    // count名学生依次分到classCount个班
+    private static List<StudentDTO> students(int count, int classCount) {
+        List<StudentDTO> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(new StudentDTO("学生" + i, "班级" + (i % classCount), "英语"));
+        }
+        return students;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatConflictReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 座位号冲突检查测试
+ * 批次内重复和已存在的座位号都能找出，负数和超大的座位号不按座位号分配位图
+ */
+class SeatConflictCheckTest {
+
+    @Test
+    void findsDuplicateAndExistingSeatNumbers() {
+        SeatConflictReport report = SeatService.findSeatConflicts(Arrays.asList(3, 5),
+                Arrays.asList(1, 2, 2, 3, null));
+
+        assertTrue(report.hasConflicts());
+        assertEquals(List.of(2), report.getDuplicateSeatNumbers());
+        assertEquals(List.of(3), report.getExistingSeatNumbers());
+        assertEquals(1, report.getMissingSeatNumbers());
+    }
+
+    @Test
+    void outOfRangeSeatNumbersUseSetFallback() {
+        // 2e9 这样的单元格解析为 Integer.MAX_VALUE，按座位号分配位图会占用数百MB
+        SeatConflictReport report = SeatService.findSeatConflicts(Arrays.asList(Integer.MAX_VALUE, -1),
+                Arrays.asList(Integer.MAX_VALUE, 2_000_000_000, 2_000_000_000, -1, 65_536, 65_535));
+
+        assertEquals(List.of(2_000_000_000), report.getDuplicateSeatNumbers());
+        assertEquals(List.of(Integer.MAX_VALUE, -1), report.getExistingSeatNumbers());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.exception.BusinessException;
+import com.example.exam.model.Exam;
+import com.example.exam.support.ExamFixtures;
+import com.example.exam.utils.ExcelUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Excel座位流式导入测试
+ * 行数超过一块时分多块写入；任一块发现冲突时已写入的块一并回滚，并一次报告全部冲突
+ */
+@SpringBootTest
+class SeatExcelImportTest {
+
+    private static final LocalDate EXAM_DATE = LocalDate.of(2025, 12, 1);
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void appendImportWritesEveryChunk() throws IOException {
+        Exam exam = saveExam("N801");
+        seatService.saveSeatsInBatch(exam, ExamFixtures.seats(exam, "追加甲", "追加乙"));
+
+        AtomicInteger rowsParsed = new AtomicInteger();
+        int saved = seatService.importSeatsFromExcel(exam, workbook(exam, rows("追加", 3, 2502)), false, rowsParsed::addAndGet);
+
+        assertEquals(2500, saved);
+        assertEquals(2500, rowsParsed.get());
+        assertEquals(2502, seatCount(exam));
+        assertEquals("追加2502", jdbcTemplate.queryForObject(
+                "SELECT student_name FROM seat WHERE exam_id = ? AND seat_number = 2502", String.class, exam.getId()));
+    }
+
+    @Test
+    void conflictInLastChunkRollsBackEarlierChunks() throws IOException {
+        Exam exam = saveExam("N802");
+        seatService.saveSeatsInBatch(exam, ExamFixtures.seats(exam, "冲突甲", "冲突乙"));
+        List<SeatRowDTO> rows = rows("冲突", 3, 2502);
+        rows.add(new SeatRowDTO(2, "重复已有", false));
+        rows.add(new SeatRowDTO(5, "重复本表", false));
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> seatService.importSeatsFromExcel(exam, workbook(exam, rows), false, count -> { }));
+
+        assertEquals(400, e.getCode());
+        assertTrue(e.getMessage().contains("2") && e.getMessage().contains("5"), e.getMessage());
+        assertEquals(2, seatCount(exam));
+    }
+
+    @Test
+    void replaceImportKeepsSheetAvailability() throws IOException {
+        Exam exam = saveExam("N803");
+        seatService.saveSeatsInBatch(exam, ExamFixtures.seats(exam, 5, "旧"));
+        List<SeatRowDTO> rows = new ArrayList<>();
+        rows.add(new SeatRowDTO(1, "新一", false));
+        rows.add(new SeatRowDTO(2, "", true));
+
+        int saved = seatService.importSeatsFromExcel(exam, workbook(exam, rows), true, count -> { });
+
+        assertEquals(2, saved);
+        assertEquals(2, seatCount(exam));
+        assertFalse(jdbcTemplate.queryForObject(
+                "SELECT available FROM seat WHERE exam_id = ? AND seat_number = 1", Boolean.class, exam.getId()));
+    }
+
+    private Exam saveExam(String room) {
+        return examService.saveExam(ExamFixtures.exam(room, "数据结构", EXAM_DATE, LocalTime.of(9, 0), LocalTime.of(11, 0)));
+    }
+
+    private int seatCount(Exam exam) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seat WHERE exam_id = ?", Integer.class, exam.getId());
+    }
+
+    private static List<SeatRowDTO> rows(String prefix, int from, int to) {
+        List<SeatRowDTO> rows = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            rows.add(new SeatRowDTO(i, prefix + i, false));
+        }
+        return rows;
+    }
+
+    private static MockMultipartFile workbook(Exam exam, List<SeatRowDTO> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelUtils.writeSeatsToExcel(rows, exam, out);
+        return new MockMultipartFile("file", "seats.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", out.toByteArray());
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatLocationDTO;
+import com.example.exam.model.Exam;
+import com.example.exam.support.ExamFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 学生座位查询索引测试
+ * 查询按完全匹配、前缀匹配、包含匹配排序，双字片段的倒排表求交集；考试改期或删除后索引随之更新
+ */
+@SpringBootTest
+class SeatLookupIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 11, 3);
+
+    @Autowired
+    private SeatLookupIndex seatLookupIndex;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Test
+    void ordersExactThenPrefixThenContains() {
+        SeatLookupIndex.DateIndex index = new SeatLookupIndex.DateIndex(Map.of(
+                2L, exam(2L, "李明华", "明华光"),
+                1L, exam(1L, "华明", "明华", "陈明")));
+
+        assertEquals(List.of("明华", "明华光", "李明华"), names(index.search("明华", 10)));
+        assertEquals(List.of("明华", "明华光"), names(index.search("明华", 2)));
+
+        // 单个字使用单字倒排表，同一档内按考试ID和座位顺序返回
+        assertEquals(List.of("明华", "明华光", "华明", "陈明", "李明华"), names(index.search("明", 10)));
+
+        // "张明华"的双字片段分别出现在不同的姓名中，交集为空
+        SeatLookupIndex.DateIndex split = new SeatLookupIndex.DateIndex(Map.of(1L, exam(1L, "张明", "明华")));
+        assertTrue(split.search("张明华", 10).isEmpty());
+        assertTrue(split.search("王", 10).isEmpty());
+    }
+
+    @Test
+    void replacesAndRemovesSingleExam() {
+        SeatLookupIndex.ExamIndex first = exam(1L, "赵一");
+        SeatLookupIndex.DateIndex index = new SeatLookupIndex.DateIndex(Map.of(1L, first, 2L, exam(2L, "赵二")));
+
+        SeatLookupIndex.DateIndex replaced = index.with(2L, exam(2L, "赵三"));
+        assertEquals(List.of("赵一", "赵三"), names(replaced.search("赵", 10)));
+        assertEquals(List.of("赵一", "赵二"), names(index.search("赵", 10)));
+
+        assertEquals(List.of("赵三"), names(replaced.without(1L).search("赵", 10)));
+        assertSame(replaced, replaced.without(9L));
+        assertNull(replaced.without(1L).without(2L));
+    }
+
+    @Test
+    void stopsCollectingAtLimit() {
+        SeatLookupIndex.ExamIndex exam = exam(1L, "周明", "周明", "周明甲", "周明乙", "小周明", "老周明");
+        List<SeatLocationDTO> exact = new ArrayList<>();
+        List<SeatLocationDTO> prefix = new ArrayList<>();
+        List<SeatLocationDTO> contains = new ArrayList<>();
+
+        // 每档最多收集limit条
+        exam.match("周明", 1, exact, prefix, contains);
+        assertEquals(List.of("周明"), names(exact));
+        assertTrue(prefix.size() <= 1);
+        assertTrue(contains.size() <= 1);
+
+        // 完全匹配满limit条后停止扫描，后面的考试不再参与
+        SeatLookupIndex.DateIndex index = new SeatLookupIndex.DateIndex(Map.of(1L, exam, 2L, exam(2L, "周明")));
+        List<SeatLocationDTO> result = index.search("周明", 2);
+        assertEquals(List.of("周明", "周明"), names(result));
+        assertEquals(1L, result.get(1).getExamId());
+        assertEquals(List.of("周明", "周明", "周明", "周明甲"), names(index.search("周明", 4)));
+    }
+
+    @Test
+    void intersectsSortedPostings() {
+        assertArrayEquals(new int[]{2, 5, 9}, SeatLookupIndex.intersect(new int[]{1, 2, 5, 7, 9}, new int[]{0, 2, 5, 9, 12}));
+        assertArrayEquals(new int[0], SeatLookupIndex.intersect(new int[]{1, 3}, new int[]{2, 4}));
+        assertArrayEquals(new int[0], SeatLookupIndex.intersect(new int[0], new int[]{1}));
+    }
+
+    @Test
+    void rescheduledExamMovesToNewDate() {
+        Exam exam = examService.saveExam(ExamFixtures.exam("N901", "化学", DATE, LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        seatService.replaceSeats(exam, ExamFixtures.seats(exam, "改期甲", "改期乙"));
+        assertEquals(2, seatLookupIndex.search(DATE, "改期", 10).size());
+
+        exam.setExamDate(DATE.plusDays(1));
+        examService.saveExam(exam);
+        assertTrue(seatLookupIndex.search(DATE, "改期", 10).isEmpty());
+        List<SeatLocationDTO> moved = seatLookupIndex.search(DATE.plusDays(1), "改期甲", 10);
+        assertEquals(1, moved.size());
+        assertEquals(DATE.plusDays(1), moved.get(0).getExamDate());
+
+        examService.deleteExam(exam.getId());
+        assertTrue(seatLookupIndex.search(DATE.plusDays(1), "改期", 10).isEmpty());
+    }
+
+    private static SeatLookupIndex.ExamIndex exam(Long examId, String... names) {
+        List<SeatLocationDTO> seats = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            seats.add(new SeatLocationDTO(names[i], examId, "N900", "化学", DATE,
+                    LocalTime.of(9, 0), LocalTime.of(11, 0), i + 1));
+        }
+        return new SeatLookupIndex.ExamIndex(seats);
+    }
+
+    private static List<String> names(List<SeatLocationDTO> seats) {
+        List<String> names = new ArrayList<>();
+        for (SeatLocationDTO seat : seats) {
+            names.add(seat.getStudentName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SeatAllocationRequestDTO;
+import com.example.exam.DTO.SessionAllocationRequestDTO;
+import com.example.exam.DTO.SessionAllocationResultDTO;
+import com.example.exam.DTO.StudentDTO;
+import com.example.exam.exception.BusinessException;
+import com.example.exam.model.Exam;
+import com.example.exam.support.ExamFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 整场考试自动排座测试
+ * 学生按容量分到各试室，各试室可以单独指定布局；任一试室写入失败时全部试室保持原有座位
+ */
+@SpringBootTest
+class SessionAllocationServiceTest {
+
+    private static final LocalDate EXAM_DATE = LocalDate.of(2025, 10, 13);
+
+    @Autowired
+    private SessionAllocationService sessionAllocationService;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void splitsStudentsByCapacityAndSpreadsRemainder() {
+        // 10名学生按 10:5:3 分配，取整后为 5、2、1，余下2人依次补给前两个试室
+        List<List<StudentDTO>> rooms = SessionAllocationService.splitStudents(students(10, 2), new int[]{10, 5, 3}, 18);
+        assertEquals(List.of(6, 3, 1), sizes(rooms));
+
+        // 同班学生轮流分到各试室
+        assertEquals(List.of("班级0", "班级0", "班级0"), List.of(rooms.get(0).get(0).getClassName(),
+                rooms.get(1).get(0).getClassName(), rooms.get(2).get(0).getClassName()));
+
+        // 余下的学生跳过已满的试室
+        assertEquals(List.of(1, 10), sizes(SessionAllocationService.splitStudents(students(11, 3), new int[]{1, 10}, 11)));
+        assertEquals(List.of(2, 2, 1), sizes(SessionAllocationService.splitStudents(students(5, 1), new int[]{2, 2, 2}, 6)));
+    }
+
+    @Test
+    void roomLayoutOverridesDefaultLayout() {
+        examService.saveExam(exam("S911", LocalTime.of(14, 0), LocalTime.of(16, 0)));
+        examService.saveExam(exam("S912", LocalTime.of(14, 0), LocalTime.of(16, 0)));
+        SessionAllocationRequestDTO request = request("14:00", "16:00", students(5, 5));
+        request.setRoomLayouts(Map.of("S911", layout(3, 3)));
+
+        SessionAllocationResultDTO result = sessionAllocationService.allocateSession(request);
+
+        assertEquals("S911", result.getRooms().get(0).getRoom());
+        assertEquals(9, result.getRooms().get(0).getTotalSeats());
+        assertEquals(4, result.getRooms().get(0).getAssignedSeats());
+        assertEquals(4, result.getRooms().get(1).getTotalSeats());
+        assertEquals(1, result.getRooms().get(1).getAssignedSeats());
+    }
+
+    @Test
+    void failedRoomLeavesEverySessionRoomUnchanged() {
+        // 冲突生已安排在时间重叠的另一场考试中
+        Exam other = examService.saveExam(exam("S900", LocalTime.of(8, 30), LocalTime.of(10, 30)));
+        seatService.replaceSeats(other, ExamFixtures.seats(other, "冲突生"));
+        Exam first = examService.saveExam(exam("S901", LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        Exam second = examService.saveExam(exam("S902", LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        seatService.replaceSeats(first, ExamFixtures.seats(first, 3, "旧"));
+
+        // 同班的两名学生依次分到S901和S902，S901先写入，S902因冲突失败
+        List<StudentDTO> students = List.of(new StudentDTO("新生", "一班", "数学"), new StudentDTO("冲突生", "一班", "数学"));
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> sessionAllocationService.allocateSession(request("09:00", "11:00", students)));
+
+        assertEquals(409, e.getCode());
+        assertTrue(e.getMessage().contains("S902"), e.getMessage());
+        assertEquals(List.of("旧1", "旧2", "旧3"), jdbcTemplate.queryForList(
+                "SELECT student_name FROM seat WHERE exam_id = ? ORDER BY seat_number", String.class, first.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seat WHERE exam_id = ?", Integer.class, second.getId()));
+    }
+
+    @Test
+    void solvesTenThousandStudentsOverHundredRooms() {
+        for (int i = 1; i <= 100; i++) {
+            examService.saveExam(exam(String.format("P%03d", i), LocalTime.of(18, 0), LocalTime.of(20, 0)));
+        }
+        SessionAllocationRequestDTO request = request("18:00", "20:00", students(10_000, 50));
+        request.setRows(11);
+        request.setCols(12);
+
+        SessionAllocationResultDTO result = sessionAllocationService.allocateSession(request);
+
+        assertEquals(100, result.getRooms().size());
+        assertEquals(10_000, result.getRooms().stream().mapToInt(room -> room.getAssignedSeats()).sum());
+        assertTrue(result.getSolveMillis() < 2000, "求解耗时 " + result.getSolveMillis() + "ms");
+    }
+
+    private static Exam exam(String room, LocalTime startTime, LocalTime endTime) {
+        return ExamFixtures.exam(room, "高等数学", EXAM_DATE, startTime, endTime);
+    }
+
+    private static SessionAllocationRequestDTO request(String startTime, String endTime, List<StudentDTO> students) {
+        SessionAllocationRequestDTO request = new SessionAllocationRequestDTO();
+        request.setExamDate(EXAM_DATE.toString());
+        request.setStartTime(startTime);
+        request.setEndTime(endTime);
+        request.setRows(2);
+        request.setCols(2);
+        request.setStudents(students);
+        return request;
+    }
+
+    private static SeatAllocationRequestDTO layout(int rows, int cols) {
+        SeatAllocationRequestDTO layout = new SeatAllocationRequestDTO();
+        layout.setRows(rows);
+        layout.setCols(cols);
+        return layout;
+    }
+
+    // count名学生依次分到classCount个班
+    private static List<StudentDTO> students(int count, int classCount) {
+        List<StudentDTO> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(new StudentDTO("考生" + i, "班级" + (i % classCount), "数学"));
+        }
+        return students;
+    }
+
+    private static List<Integer> sizes(List<List<StudentDTO>> rooms) {
+        List<Integer> sizes = new ArrayList<>();
+        for (List<StudentDTO> room : rooms) {
+            sizes.add(room.size());
+        }
+        return sizes;
+    }
+}
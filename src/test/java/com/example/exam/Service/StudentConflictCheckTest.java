@@ -0,0 +1,66 @@
+package com.example.exam.Service;
+
+import com.example.exam.exception.BusinessException;
+import com.example.exam.model.Exam;
+import com.example.exam.model.Seat;
+import com.example.exam.support.ExamFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 学生跨考试冲突检查测试
+ * 同一学生不能在同一日期时间重叠的两场考试中都有座位
+ */
+@SpringBootTest
+class StudentConflictCheckTest {
+
+    private static final LocalDate EXAM_DATE = LocalDate.of(2025, 2, 10);
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Test
+    void rejectsStudentSeatedInOverlappingExam() {
+        Exam morning = createExam("C301", LocalTime.of(8, 0), LocalTime.of(10, 0));
+        Exam overlapping = createExam("C302", LocalTime.of(9, 30), LocalTime.of(11, 30));
+        Exam afternoon = createExam("C303", LocalTime.of(14, 0), LocalTime.of(16, 0));
+
+        seatService.saveSeatsInBatch(morning, ExamFixtures.seats(null, "张三", "李四"));
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> seatService.replaceSeats(overlapping, ExamFixtures.seats(null, "王五", "张三")));
+        assertEquals(409, e.getCode());
+        assertTrue(e.getMessage().contains("张三"));
+        assertTrue(e.getMessage().contains("C301"));
+
+        // 时间不重叠的考试可以安排同一学生
+        seatService.replaceSeats(afternoon, ExamFixtures.seats(null, "张三"));
+
+        // 学生从上午的考试中移除后，重叠时段的考试可以安排该学生
+        seatService.replaceSeats(morning, ExamFixtures.seats(null, "李四"));
+        seatService.replaceSeats(overlapping, ExamFixtures.seats(null, "王五", "张三"));
+
+        // 单个座位保存同样检查冲突
+        Seat seat = ExamFixtures.seat(morning, 9, "王五");
+        assertThrows(BusinessException.class, () -> seatService.saveSeat(seat));
+
+        // 删除考试后其学生安排随之移除
+        examService.deleteExam(overlapping.getId());
+        seatService.saveSeat(seat);
+    }
+
+    private Exam createExam(String room, LocalTime startTime, LocalTime endTime) {
+        return examService.saveExam(ExamFixtures.exam(room, "线性代数", EXAM_DATE, startTime, endTime));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.exam.Service;
+
+import com.example.exam.DTO.SheetImportResultDTO;
+import com.example.exam.exception.BusinessException;
+import com.example.exam.model.Exam;
+import com.example.exam.support.ExamFixtures;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 全校座位表导入测试
+ * 每个工作表按第一行考试信息或工作表名称找到（或创建）考试并替换座位，考试信息不合法时退回到工作表名称；单个工作表失败不影响其他工作表
+ */
+@SpringBootTest
+class WorkbookImportServiceTest {
+
+    private static final LocalDate EXAM_DATE = LocalDate.of(2025, 12, 15);
+
+    @Autowired
+    private WorkbookImportService workbookImportService;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importsEachSheetIndependently() throws IOException {
+        Exam existing = examService.saveExam(ExamFixtures.exam("N612", "英语", EXAM_DATE, LocalTime.of(14, 0), LocalTime.of(16, 0)));
+        seatService.saveSeatsInBatch(existing, ExamFixtures.seats(existing, 5, "旧座"));
+
+        List<SheetImportResultDTO> results;
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            // 第一行考试信息识别时段，考试不存在时按科目创建
+            Sheet header = workbook.createSheet("第一考场");
+            row(header, 0, "考试信息：数学 - N611 - 2025-12-15 8:30~10:30", null);
+            row(header, 1, "座位号", "学生姓名");
+            row(header, 2, "1", "工作簿甲");
+            row(header, 3, "2", "工作簿乙");
+
+            // 同一工作表内座位号重复，写入失败
+            Sheet duplicate = workbook.createSheet("物理_N613_20251215_1400-1600");
+            row(duplicate, 0, "座位号", "学生姓名");
+            row(duplicate, 1, "1", "工作簿丙");
+            row(duplicate, 2, "1", "工作簿丁");
+
+            // 失败的工作表之后的工作表照常导入，替换已有考试的座位
+            Sheet named = workbook.createSheet("英语_N612_20251215_1400-1600");
+            row(named, 0, "座位号", "学生姓名");
+            row(named, 1, "1", "工作簿戊");
+
+            Sheet noSlot = workbook.createSheet("座位表");
+            row(noSlot, 0, "座位号", "学生姓名");
+            row(noSlot, 1, "1", "工作簿己");
+
+            Sheet invalidDate = workbook.createSheet("化学_N614_20251232_0900-1100");
+            row(invalidDate, 0, "座位号", "学生姓名");
+            row(invalidDate, 1, "1", "工作簿庚");
+
+            Sheet noSeats = workbook.createSheet("生物_N615_20251215_0900-1100");
+            row(noSeats, 0, "座位号", "学生姓名");
+
+            // 考试不存在且工作表名称没有科目，无法创建考试
+            Sheet noSubject = workbook.createSheet("N616_20251215_0900-1100");
+            row(noSubject, 0, "座位号", "学生姓名");
+            row(noSubject, 1, "1", "工作簿辛");
+
+            // 第一行考试信息的日期不合法，按工作表名称识别时段
+            Sheet invalidHeader = workbook.createSheet("历史_N617_20251215_1400-1600");
+            row(invalidHeader, 0, "考试信息：历史 - N617 - 2025-02-30 14:00~16:00", null);
+            row(invalidHeader, 1, "座位号", "学生姓名");
+            row(invalidHeader, 2, "1", "工作簿壬");
+
+            results = workbookImportService.importWorkbook(file(workbook));
+        }
+
+        assertEquals(8, results.size());
+
+        SheetImportResultDTO created = results.get(0);
+        assertTrue(created.isSuccess(), created.getMessage());
+        assertEquals("N611", created.getRoom());
+        assertEquals("2025-12-15 08:30 ~ 10:30", created.getSlot());
+        assertEquals(2, created.getImportedSeats());
+        Exam createdExam = examService.findExamBySlot("N611", LocalTime.of(8, 30), LocalTime.of(10, 30), EXAM_DATE).orElseThrow();
+        assertEquals("数学", createdExam.getSubject());
+        assertEquals(2, seatCount(createdExam));
+
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(0, results.get(1).getImportedSeats());
+
+        assertTrue(results.get(2).isSuccess(), results.get(2).getMessage());
+        assertEquals(1, seatCount(existing));
+
+        assertFalse(results.get(3).isSuccess());
+        assertTrue(results.get(3).getMessage().contains("无法识别"), results.get(3).getMessage());
+        assertFalse(results.get(4).isSuccess());
+        assertTrue(results.get(4).getMessage().contains("无法识别"), results.get(4).getMessage());
+        assertFalse(results.get(5).isSuccess());
+        assertEquals("工作表中没有有效的座位数据", results.get(5).getMessage());
+        assertFalse(results.get(6).isSuccess());
+        assertTrue(results.get(6).getMessage().contains("未提供考试科目"), results.get(6).getMessage());
+
+        SheetImportResultDTO fallback = results.get(7);
+        assertTrue(fallback.isSuccess(), fallback.getMessage());
+        assertEquals("N617", fallback.getRoom());
+        assertEquals(1, fallback.getImportedSeats());
+        Exam fallbackExam = examService.findExamBySlot("N617", LocalTime.of(14, 0), LocalTime.of(16, 0), EXAM_DATE).orElseThrow();
+        assertEquals("历史", fallbackExam.getSubject());
+        assertEquals(1, seatCount(fallbackExam));
+
+        // 座位写入失败时整张工作表的座位回滚，按工作表名称创建的考试保留
+        assertEquals(0, seatCount(examService.findExamBySlot("N613", LocalTime.of(14, 0), LocalTime.of(16, 0), EXAM_DATE).orElseThrow()));
+        assertTrue(examService.findExamBySlot("N616", LocalTime.of(9, 0), LocalTime.of(11, 0), EXAM_DATE).isEmpty());
+    }
+
+    @Test
+    void rejectsEmptyFile() {
+        BusinessException e = assertThrows(BusinessException.class, () -> workbookImportService.importWorkbook(
+                new MockMultipartFile("file", "empty.xlsx", "application/octet-stream", new byte[0])));
+        assertEquals(400, e.getCode());
+    }
+
+    private int seatCount(Exam exam) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seat WHERE exam_id = ?", Integer.class, exam.getId());
+    }
+
+    private static void row(Sheet sheet, int rowNum, String seatNumber, String studentName) {
+        Row row = sheet.createRow(rowNum);
+        row.createCell(0).setCellValue(seatNumber);
+        if (studentName != null) {
+            row.createCell(1).setCellValue(studentName);
+        }
+    }
+
+    private static MockMultipartFile file(XSSFWorkbook workbook) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        return new MockMultipartFile("file", "workbook.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", out.toByteArray());
+    }
+}
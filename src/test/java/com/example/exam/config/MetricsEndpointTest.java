@@ -0,0 +1,93 @@
+package com.example.exam.config;
+
+import com.example.exam.Service.ExamService;
+import com.example.exam.Service.SeatService;
+import com.example.exam.model.Exam;
+import com.example.exam.support.ExamFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 监控指标测试
+ * 查询、导出和导入座位后 /actuator/prometheus 中有座位查询耗时和百分位、座位缓存和连接池指标，
+ * 导入解析和导出的耗时指标有记录
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void prometheusEndpointExposesSeatMetrics() throws Exception {
+        Exam saved = examService.saveExam(ExamFixtures.exam("N401", "概率论", LocalDate.of(2025, 5, 12),
+                LocalTime.of(10, 0), LocalTime.of(12, 0)));
+        seatService.replaceSeats(saved, ExamFixtures.seats(saved, 5, "学生"));
+        seatService.getSeatsByRoom("N401", LocalTime.of(10, 0), LocalTime.of(12, 0), LocalDate.of(2025, 5, 12), null);
+
+        // 导出座位表，响应体在异步分派时写出
+        MvcResult export = mockMvc.perform(get("/exam/export-seats")
+                        .param("room", "N401")
+                        .param("timeRange", "10:00 ~ 12:00")
+                        .param("date", "2025-05-12"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] workbook = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // 把导出的文件重新导入下午的另一场考试，时间不重叠，学生不冲突
+        mockMvc.perform(multipart("/exam/import-seats")
+                        .file(new MockMultipartFile("file", "seats.xlsx", "application/vnd.ms-excel", workbook))
+                        .param("room", "N402")
+                        .param("timeRange", "14:00 ~ 16:00")
+                        .param("date", "2025-05-12")
+                        .param("subject", "概率论"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("/exam/seats?*"));
+
+        String content = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(content.contains("exam_seats_query_seconds_count{"));
+        assertTrue(content.contains("quantile=\"0.99\""), "缺少百分位");
+        assertTrue(content.contains("cache_gets_total{application=\"exam\",cache=\"seatGrid\""));
+        assertTrue(content.contains("hikaricp_connections_active"));
+        assertTrue(content.contains("exam_sse_subscribers"));
+
+        // 导入解析、导出查询和导出写响应的耗时都在实际调用路径上记录
+        assertTrue(meterRegistry.get("exam.import.parse").timer().count() > 0);
+        assertTrue(meterRegistry.get("exam.seats.export").timer().count() > 0);
+        assertTrue(meterRegistry.get("exam.seats.export.stream").timer().count() > 0);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.exam.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 慢SQL日志测试：超过阈值的语句输出SQL、参数、行数和调用位置，未超过阈值且不抽样时不输出
+ */
+class SlowQueryLoggingDataSourceTest {
+
+    @Test
+    void logsStatementsOverThresholdWithParametersRowsAndCallSite() throws Exception {
+        List<String> messages = new ArrayList<>();
+        DataSource dataSource = new SlowQueryLoggingDataSource(h2("slowlog"), 0, 0) {
+            @Override
+            protected void log(boolean slow, String message) {
+                messages.add(message);
+            }
+        };
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE seat (seat_number INT, student_name VARCHAR(50))");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO seat VALUES (?, ?)")) {
+                for (int i = 1; i <= 3; i++) {
+                    insert.setInt(1, i);
+                    insert.setString(2, "学生" + i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement query = connection.prepareStatement("SELECT * FROM seat WHERE seat_number > ?")) {
+                query.setInt(1, 1);
+                try (ResultSet resultSet = query.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getString(2);
+                    }
+                }
+            }
+        }
+
+        assertEquals(3, messages.size());
+        assertTrue(messages.get(1).contains("3 行，批量 3 条"), messages.get(1));
+        String select = messages.get(2);
+        assertTrue(select.contains("2 行"), select);
+        assertTrue(select.contains("SELECT * FROM seat WHERE seat_number > ?"), select);
+        assertTrue(select.contains("参数 [1]"), select);
+        assertTrue(select.contains("SlowQueryLoggingDataSourceTest.logsStatementsOverThresholdWithParametersRowsAndCallSite"), select);
+    }
+
+    @Test
+    void fastStatementsAreNotLoggedWithoutSampling() throws Exception {
+        List<String> messages = new ArrayList<>();
+        DataSource dataSource = new SlowQueryLoggingDataSource(h2("fastlog"), 60_000, 0) {
+            @Override
+            protected void log(boolean slow, String message) {
+                messages.add(message);
+            }
+        };
+
+        try (Connection connection = dataSource.getConnection();
+             ResultSet resultSet = connection.createStatement().executeQuery("SELECT 1")) {
+            assertTrue(resultSet.next());
+        }
+        assertTrue(messages.isEmpty());
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return target;
+    }
+}
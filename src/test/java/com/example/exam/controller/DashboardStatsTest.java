@@ -0,0 +1,124 @@
+package com.example.exam.controller;
+
+import com.example.exam.Service.DashboardAggregates;
+import com.example.exam.Service.ExamService;
+import com.example.exam.Service.SeatService;
+import com.example.exam.model.Exam;
+import com.example.exam.model.Seat;
+import com.example.exam.support.ExamFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 控制面板统计测试
+ * 统计随考试和座位的写入增量更新，定时核对修正绕过服务层直接修改数据库造成的偏差；
+ * 座位数与座位占用接口按同一口径统计
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class DashboardStatsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private DashboardAggregates dashboardAggregates;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void statsFollowWritesAndReconcileWithDatabase() throws Exception {
+        Exam morning = examService.saveExam(exam(LocalTime.of(8, 40), LocalTime.of(10, 40)));
+        Exam afternoon = examService.saveExam(exam(LocalTime.of(14, 0), LocalTime.of(16, 0)));
+
+        // 新建的考试还没有座位
+        mockMvc.perform(get("/dashboard/stats").param("date", "2025-07-21"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].room").value("N701"))
+                .andExpect(jsonPath("$[0].exams").value(2))
+                .andExpect(jsonPath("$[0].seats").value(0));
+
+        // 上午30个座位坐满25个，下午10个座位坐满10个
+        seatService.replaceSeats(morning, seats(morning, 30, 25));
+        seatService.replaceSeats(afternoon, seats(afternoon, 10, 10));
+        mockMvc.perform(get("/dashboard/stats").param("date", "2025-07-21"))
+                .andExpect(jsonPath("$[0].seats").value(40))
+                .andExpect(jsonPath("$[0].occupiedSeats").value(35))
+                .andExpect(jsonPath("$[0].freeSeats").value(5))
+                .andExpect(jsonPath("$[0].importsInProgress").value(0));
+
+        // 绕过服务层直接删除座位，核对后以数据库为准
+        jdbcTemplate.update("DELETE FROM seat WHERE exam_id = ? AND seat_number > 20", morning.getId());
+        dashboardAggregates.reconcile();
+        mockMvc.perform(get("/dashboard/stats").param("date", "2025-07-21"))
+                .andExpect(jsonPath("$[0].seats").value(30))
+                .andExpect(jsonPath("$[0].occupiedSeats").value(30));
+
+        examService.deleteExam(afternoon.getId());
+        mockMvc.perform(get("/dashboard/stats").param("date", "2025-07-21"))
+                .andExpect(jsonPath("$[0].exams").value(1))
+                .andExpect(jsonPath("$[0].seats").value(20))
+                .andExpect(jsonPath("$[0].freeSeats").value(0));
+
+        examService.deleteExam(morning.getId());
+        mockMvc.perform(get("/dashboard/stats").param("date", "2025-07-21"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void seatCountsMatchOccupancyEndpoint() throws Exception {
+        Exam exam = examService.saveExam(ExamFixtures.exam("N702", "线性代数", LocalDate.of(2025, 7, 22),
+                LocalTime.of(8, 40), LocalTime.of(10, 40)));
+
+        // 超出座位空闲位图上限的座位号两个接口都不计入
+        List<Seat> seats = seats(exam, 3, 2);
+        seats.add(ExamFixtures.seat(exam, 70000, "超大座位号"));
+        seatService.replaceSeats(exam, seats);
+
+        mockMvc.perform(get("/exam/occupancy").param("date", "2025-07-22"))
+                .andExpect(jsonPath("$[0].totalSeats").value(3))
+                .andExpect(jsonPath("$[0].occupiedSeats").value(2));
+        mockMvc.perform(get("/dashboard/stats").param("date", "2025-07-22"))
+                .andExpect(jsonPath("$[0].seats").value(3))
+                .andExpect(jsonPath("$[0].occupiedSeats").value(2));
+
+        // 核对查询按相同口径统计，不会把超大座位号加回来
+        dashboardAggregates.reconcile();
+        mockMvc.perform(get("/dashboard/stats").param("date", "2025-07-22"))
+                .andExpect(jsonPath("$[0].seats").value(3))
+                .andExpect(jsonPath("$[0].occupiedSeats").value(2));
+    }
+
+    private static Exam exam(LocalTime startTime, LocalTime endTime) {
+        return ExamFixtures.exam("N701", "线性代数", LocalDate.of(2025, 7, 21), startTime, endTime);
+    }
+
+    // 1~total号座位，前occupied个安排学生
+    private static List<Seat> seats(Exam exam, int total, int occupied) {
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 1; i <= total; i++) {
+            seats.add(ExamFixtures.seat(exam, i, i <= occupied ? exam.getStartEndTime() + "-" + i : null));
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.exam.controller;
+
+import com.example.exam.Service.ExamService;
+import com.example.exam.Service.SeatService;
+import com.example.exam.model.Exam;
+import com.example.exam.support.ExamFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 座位表冻结快照测试
+ * 冻结后座位表页面和JSON由快照直接返回，不执行SQL；座位变更后自动解除冻结
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class FrozenSeatChartTest {
+
+    private static final String ROOM = "N201";
+    private static final String TIME_RANGE = "14:00 ~ 16:00";
+    private static final String DATE = "2025-03-03";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Exam exam;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        exam = examService.findExamBySlot(ROOM, LocalTime.of(14, 0), LocalTime.of(16, 0), LocalDate.parse(DATE))
+                .orElseGet(this::createExam);
+    }
+
+    private Exam createExam() {
+        Exam created = examService.saveExam(ExamFixtures.exam(ROOM, "大学物理", LocalDate.parse(DATE),
+                LocalTime.of(14, 0), LocalTime.of(16, 0)));
+        seatService.saveSeatsInBatch(created, ExamFixtures.seats(created, 30, "物理"));
+        return created;
+    }
+
+    @Test
+    void frozenSeatChartIsServedFromSnapshot() throws Exception {
+        mockMvc.perform(post("/admin/exam/{id}/freeze", exam.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.examId").value(exam.getId()));
+        statistics.clear();
+
+        MvcResult page = mockMvc.perform(get("/exam/seats")
+                        .param("room", ROOM)
+                        .param("start_end_time", TIME_RANGE)
+                        .param("subject", "大学物理")
+                        .param("date", DATE)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age")))
+                .andReturn();
+        String html = new String(new GZIPInputStream(new ByteArrayInputStream(page.getResponse().getContentAsByteArray()))
+                .readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(html.contains("物理30"));
+
+        String etag = page.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/exam/seats")
+                        .param("room", ROOM)
+                        .param("start_end_time", TIME_RANGE)
+                        .param("subject", "大学物理")
+                        .param("date", DATE)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/exam/seats/data")
+                        .param("room", ROOM)
+                        .param("timeRange", TIME_RANGE)
+                        .param("date", DATE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seats.length()").value(30));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(post("/admin/exam/{id}/unfreeze", exam.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    void seatChangeUnfreezesExam() throws Exception {
+        mockMvc.perform(post("/admin/exam/{id}/freeze", exam.getId())).andExpect(status().isOk());
+
+        seatService.replaceSeats(exam, ExamFixtures.seats(exam, 31, "物理"));
+
+        mockMvc.perform(post("/admin/exam/{id}/unfreeze", exam.getId())).andExpect(status().isNotFound());
+        mockMvc.perform(get("/exam/seats/data")
+                        .param("room", ROOM)
+                        .param("timeRange", TIME_RANGE)
+                        .param("date", DATE))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.seats.length()").value(31));
+
+        seatService.replaceSeats(exam, ExamFixtures.seats(exam, 30, "物理"));
+    }
+}
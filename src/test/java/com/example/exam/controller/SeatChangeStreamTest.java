@@ -0,0 +1,83 @@
+package com.example.exam.controller;
+
+import com.example.exam.Service.ExamService;
+import com.example.exam.Service.SeatService;
+import com.example.exam.model.Exam;
+import com.example.exam.model.Seat;
+import com.example.exam.support.ExamFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 座位变更推送测试
+ * 订阅后先收到全部座位，座位变更后只收到变化的座位
+ */
+@SpringBootTest
+// 推送线程写响应的同时打印结果会遍历响应头，可能抛出ConcurrentModificationException
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+class SeatChangeStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Test
+    void subscriberReceivesSnapshotThenDelta() throws Exception {
+        Exam saved = examService.saveExam(ExamFixtures.exam("N301", "线性代数", LocalDate.of(2025, 4, 7),
+                LocalTime.of(9, 0), LocalTime.of(11, 0)));
+        seatService.replaceSeats(saved, ExamFixtures.seats(saved, 10, "代数"));
+
+        MockHttpServletResponse response = mockMvc.perform(get("/exam/seats/stream")
+                        .param("room", "N301")
+                        .param("timeRange", "09:00 ~ 11:00")
+                        .param("date", "2025-04-07"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitContent(response, content -> content.contains("event:seats") && content.contains("代数10"));
+
+        // 只修改第3号座位
+        List<Seat> changed = ExamFixtures.seats(saved, 10, "代数");
+        changed.get(2).setStudentName("换座3");
+        seatService.replaceSeats(saved, changed);
+
+        String content = awaitContent(response, c -> c.contains("event:delta"));
+        String delta = content.substring(content.indexOf("event:delta"));
+        assertTrue(delta.contains("换座3"));
+        assertFalse(delta.contains("代数1\""));
+        assertFalse(delta.contains("代数10"));
+    }
+
+    // 推送在线程池中发送，等待响应内容满足条件
+    private static String awaitContent(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String content = response.getContentAsString(StandardCharsets.UTF_8);
+            if (condition.test(content)) {
+                return content;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("未收到预期的推送，当前内容：" + response.getContentAsString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.exam.controller;
+
+import com.example.exam.Service.ExamService;
+import com.example.exam.Service.SeatService;
+import com.example.exam.model.Exam;
+import com.example.exam.model.Seat;
+import com.example.exam.support.ExamFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 座位占用测试
+ * 占用情况和下一个空座由内存位图计算，座位变更后随之更新
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SeatOccupancyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Test
+    void occupancyAndNextFreeSeatFollowSeatChanges() throws Exception {
+        Exam saved = examService.saveExam(ExamFixtures.exam("N601", "离散数学", LocalDate.of(2025, 7, 14),
+                LocalTime.of(14, 0), LocalTime.of(16, 0)));
+
+        // 1~100号座位，其中70号和130号为空座
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            seats.add(ExamFixtures.seat(saved, i, i == 70 ? null : "离散" + i));
+        }
+        seats.add(ExamFixtures.seat(saved, 130, null));
+        seatService.replaceSeats(saved, seats);
+
+        mockMvc.perform(get("/exam/occupancy").param("date", "2025-07-14"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].room").value("N601"))
+                .andExpect(jsonPath("$[0].totalSeats").value(101))
+                .andExpect(jsonPath("$[0].occupiedSeats").value(99))
+                .andExpect(jsonPath("$[0].freeSeats").value(2))
+                .andExpect(jsonPath("$[0].nextFreeSeat").value(70));
+        mockMvc.perform(get("/exam/next-free-seat").param("examId", saved.getId().toString()).param("after", "70"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seatNumber").value(130));
+
+        // 安排学生到130号后没有更靠后的空座
+        seats.set(100, ExamFixtures.seat(saved, 130, "离散130"));
+        seatService.replaceSeats(saved, seats);
+        mockMvc.perform(get("/exam/next-free-seat").param("examId", saved.getId().toString()).param("after", "70"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/exam/occupancy").param("date", "2025-07-14"))
+                .andExpect(jsonPath("$[0].freeSeats").value(1));
+    }
+}
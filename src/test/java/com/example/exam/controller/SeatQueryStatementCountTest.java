@@ -0,0 +1,206 @@
+package com.example.exam.controller;
+
+import com.example.exam.Service.ExamService;
+import com.example.exam.Service.SeatQueryCache;
+import com.example.exam.Service.SeatService;
+import com.example.exam.model.Exam;
+import com.example.exam.support.ExamFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 座位查询SQL语句数量测试
+ * 通过Hibernate统计信息断言座位表、Excel导出和考试信息接口不存在N+1查询，
+ * 以及座位表缓存命中时不访问数据库、并发未命中只加载一次、座位变更后重新加载，考试信息条件请求命中时不访问数据库
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SeatQueryStatementCountTest {
+
+    private static final String ROOM = "N101";
+    private static final int SEAT_COUNT = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private SeatQueryCache seatQueryCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (examService.findExamBySlot(ROOM, LocalTime.of(8, 40), LocalTime.of(10, 40), LocalDate.of(2025, 1, 6)).isPresent()) {
+            return;
+        }
+
+        Exam exam = examService.saveExam(ExamFixtures.exam(ROOM, "高等数学", LocalDate.of(2025, 1, 6),
+                LocalTime.of(8, 40), LocalTime.of(10, 40)));
+        seatService.saveSeatsInBatch(exam, ExamFixtures.seats(exam, SEAT_COUNT, "学生"));
+    }
+
+    @Test
+    void seatGridUsesSingleStatementThenCache() throws Exception {
+        seatQueryCache.invalidateAll();
+        statistics.clear();
+
+        requestSeatGrid();
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        // 再次查询由缓存返回
+        requestSeatGrid();
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void concurrentSeatGridMissesShareOneLoad() throws Exception {
+        Long examId = examService.findExamBySlot(ROOM, LocalTime.of(8, 40), LocalTime.of(10, 40), LocalDate.of(2025, 1, 6))
+                .orElseThrow().getId();
+        seatQueryCache.invalidateAll();
+        statistics.clear();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                tasks.add(() -> seatQueryCache.getSeats(examId).size());
+            }
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                assertEquals(SEAT_COUNT, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void seatChangeEvictsCachedSeats() {
+        Exam exam = examService.saveExam(ExamFixtures.exam("N102", "高等数学", LocalDate.of(2025, 1, 6),
+                LocalTime.of(8, 40), LocalTime.of(10, 40)));
+        seatService.saveSeatsInBatch(exam, ExamFixtures.seats(exam, "缓存甲", "缓存乙"));
+        assertEquals(2, seatQueryCache.getSeats(exam.getId()).size());
+
+        // 变更后条目被移除，下次查询重新加载已提交的座位
+        seatService.saveSeat(ExamFixtures.seat(exam, 3, "缓存丙"));
+        statistics.clear();
+        assertEquals(3, seatQueryCache.getSeats(exam.getId()).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void requestSeatGrid() throws Exception {
+        mockMvc.perform(get("/exam/seats")
+                        .param("room", ROOM)
+                        .param("start_end_time", "08:40 ~ 10:40")
+                        .param("subject", "高等数学")
+                        .param("date", "2025-01-06"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("seats", org.hamcrest.Matchers.hasSize(SEAT_COUNT)));
+    }
+
+    @Test
+    void excelExportUsesSingleStatement() throws Exception {
+        statistics.clear();
+
+        MvcResult result = mockMvc.perform(get("/exam/export-seats")
+                        .param("room", ROOM)
+                        .param("timeRange", "08:40 ~ 10:40")
+                        .param("date", "2025-01-06"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void examDataDoesNotQueryDatabase() throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(get("/exam/data")
+                        .param("room", ROOM)
+                        .param("timeRange", "08:40 ~ 10:40")
+                        .param("date", "2025-01-06"))
+                .andExpect(status().isOk());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void examDataConditionalGetReturnsNotModifiedWithoutQuery() throws Exception {
+        String etag = mockMvc.perform(get("/exam/data")
+                        .param("room", ROOM)
+                        .param("timeRange", "08:40 ~ 10:40")
+                        .param("date", "2025-01-06"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        statistics.clear();
+
+        mockMvc.perform(get("/exam/data")
+                        .param("room", ROOM)
+                        .param("timeRange", "08:40 ~ 10:40")
+                        .param("date", "2025-01-06")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/admin/exam/data")
+                        .param("room", ROOM)
+                        .param("timeRange", "08:40 ~ 10:40")
+                        .param("date", "2025-01-06")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // 修改考试后版本变化，返回新内容和新的ETag
+        Exam exam = examService.findExamBySlot(ROOM, LocalTime.of(8, 40), LocalTime.of(10, 40), LocalDate.of(2025, 1, 6))
+                .orElseThrow();
+        examService.saveExam(exam);
+        String newEtag = mockMvc.perform(get("/exam/data")
+                        .param("room", ROOM)
+                        .param("timeRange", "08:40 ~ 10:40")
+                        .param("date", "2025-01-06")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+    }
+}
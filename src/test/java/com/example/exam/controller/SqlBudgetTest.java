@@ -0,0 +1,147 @@
+package com.example.exam.controller;
+
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.Service.ExamService;
+import com.example.exam.Service.SeatQueryCache;
+import com.example.exam.Service.SeatService;
+import com.example.exam.Service.UserService;
+import com.example.exam.model.Exam;
+import com.example.exam.support.ExamFixtures;
+import com.example.exam.support.SqlBudgetTestConfig;
+import com.example.exam.utils.ExcelUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.exam.support.SqlBudgetInterceptor.budgetDeclared;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL预算测试
+ * 座位表（30个座位）、上传座位表（200行）和用户列表（20个用户）接口的语句数不随数据量增加，
+ * 不超过接口上 @SqlBudget 声明的预算（由 SqlBudgetTestConfig 对每个请求检查）；超出预算的接口会使请求失败
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({SqlBudgetTestConfig.class, SqlBudgetTest.OverBudgetController.class})
+class SqlBudgetTest {
+
+    private static final String ROOM = "N501";
+    private static final LocalDate DATE = LocalDate.of(2025, 6, 9);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private SeatService seatService;
+
+    @Autowired
+    private SeatQueryCache seatQueryCache;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        if (examService.findExamBySlot(ROOM, LocalTime.of(8, 0), LocalTime.of(10, 0), DATE).isPresent()) {
+            return;
+        }
+        Exam seated = saveExam(LocalTime.of(8, 0), LocalTime.of(10, 0));
+        seatService.replaceSeats(seated, ExamFixtures.seats(seated, 30, "预算"));
+        saveExam(LocalTime.of(13, 0), LocalTime.of(15, 0));
+        for (int i = 1; i <= 20; i++) {
+            userService.registerUser("budget" + i, "password" + i, "budget" + i + "@example.com", "预算用户" + i);
+        }
+    }
+
+    @Test
+    void seatGridStaysWithinBudget() throws Exception {
+        seatQueryCache.invalidateAll();
+        mockMvc.perform(get("/exam/seats")
+                        .param("room", ROOM)
+                        .param("start_end_time", "08:00 ~ 10:00")
+                        .param("subject", "数据结构")
+                        .param("date", DATE.toString()))
+                .andExpect(status().isOk())
+                .andExpect(budgetDeclared());
+    }
+
+    @Test
+    void seatChartUploadStaysWithinBudget() throws Exception {
+        List<SeatRowDTO> rows = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            rows.add(new SeatRowDTO(i, "上传" + i, false));
+        }
+        ByteArrayOutputStream workbook = new ByteArrayOutputStream();
+        ExcelUtils.writeSeatsToExcel(rows, examService.findExamBySlot(ROOM, LocalTime.of(13, 0), LocalTime.of(15, 0), DATE)
+                .orElseThrow(), workbook);
+
+        mockMvc.perform(multipart("/admin/upload-seat-chart")
+                        .file(new MockMultipartFile("file", "seats.xlsx",
+                                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", workbook.toByteArray()))
+                        .param("room", ROOM)
+                        .param("startTime", "13:00")
+                        .param("endTime", "15:00")
+                        .param("examDate", DATE.toString()))
+                .andExpect(status().isOk())
+                .andExpect(budgetDeclared());
+    }
+
+    @Test
+    void userListStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/users/list"))
+                .andExpect(status().isOk())
+                .andExpect(budgetDeclared());
+    }
+
+    @Test
+    void overBudgetHandlerFailsRequest() {
+        // 每个请求都由 withinBudget() 检查，超出预算时请求本身就会失败
+        AssertionError error = assertThrows(AssertionError.class, () -> mockMvc.perform(get("/sql-budget-test/over-budget")));
+        assertTrue(error.getMessage().contains("OverBudgetController.overBudget 超出SQL预算：语句 2/1"), error.getMessage());
+    }
+
+    private Exam saveExam(LocalTime start, LocalTime end) {
+        return examService.saveExam(ExamFixtures.exam(ROOM, "数据结构", DATE, start, end));
+    }
+
+    /**
+     * 执行两条查询但只声明一条语句预算的接口，只在本测试中注册
+     */
+    @RestController
+    static class OverBudgetController {
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @GetMapping("/sql-budget-test/over-budget")
+        @SqlBudget(statements = 1)
+        public long overBudget() {
+            long exams = entityManager.createQuery("SELECT COUNT(e) FROM Exam e", Long.class).getSingleResult();
+            long seats = entityManager.createQuery("SELECT COUNT(s) FROM Seat s", Long.class).getSingleResult();
+            return exams + seats;
+        }
+    }
+}
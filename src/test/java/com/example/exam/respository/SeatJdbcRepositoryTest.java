@@ -0,0 +1,92 @@
+package com.example.exam.respository;
+
+import com.example.exam.model.Seat;
+import com.example.exam.support.ExamFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 座位批量写入测试
+ * 在内嵌H2（MySQL模式）上检查跨越多个批次写入的行数和内容，以及座位号、可用状态为空时写入NULL
+ */
+class SeatJdbcRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SeatJdbcRepository seatJdbcRepository;
+    private long examId;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:seat_batch;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE exam (id BIGINT AUTO_INCREMENT PRIMARY KEY, room VARCHAR(50))");
+        jdbcTemplate.execute("CREATE TABLE seat (id BIGINT AUTO_INCREMENT PRIMARY KEY, exam_id BIGINT NOT NULL, "
+                + "seat_number INT, student_name VARCHAR(100), available BOOLEAN)");
+        jdbcTemplate.update("INSERT INTO exam (room) VALUES ('A101')");
+        examId = jdbcTemplate.queryForObject("SELECT id FROM exam", Long.class);
+
+        seatJdbcRepository = new SeatJdbcRepository();
+        ReflectionTestUtils.setField(seatJdbcRepository, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void insertsEveryRowAcrossBatchBoundaries() {
+        // 两个整批加一个只有一行的批次
+        int count = SeatJdbcRepository.BATCH_SIZE * 2 + 1;
+        List<Seat> seats = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            seats.add(ExamFixtures.seat(null, i, i % 10 == 0 ? null : "学生" + i));
+        }
+
+        assertEquals(count, seatJdbcRepository.batchInsert(examId, seats));
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT exam_id, seat_number, student_name, available FROM seat ORDER BY seat_number");
+        assertEquals(count, rows.size());
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = rows.get(i);
+            int seatNumber = i + 1;
+            assertEquals(examId, ((Number) row.get("EXAM_ID")).longValue());
+            assertEquals(seatNumber, row.get("SEAT_NUMBER"));
+            assertEquals(seatNumber % 10 == 0 ? null : "学生" + seatNumber, row.get("STUDENT_NAME"));
+            assertEquals(seatNumber % 10 == 0, row.get("AVAILABLE"));
+        }
+    }
+
+    @Test
+    void writesNullSeatNumberAndAvailability() {
+        Seat seat = new Seat();
+        seat.setStudentName("张三");
+
+        assertEquals(1, seatJdbcRepository.batchInsert(examId, List.of(seat)));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT seat_number, student_name, available FROM seat");
+        assertNull(row.get("SEAT_NUMBER"));
+        assertEquals("张三", row.get("STUDENT_NAME"));
+        assertNull(row.get("AVAILABLE"));
+    }
+
+    @Test
+    void emptyListWritesNothing() {
+        assertEquals(0, seatJdbcRepository.batchInsert(examId, Collections.emptyList()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seat", Integer.class));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.exam.support;
+
+import com.example.exam.model.Exam;
+import com.example.exam.model.Seat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 测试用的考试和座位数据
+ */
+public final class ExamFixtures {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private ExamFixtures() {
+    }
+
+    /**
+     * 闭卷考试，时间范围为 "HH:mm ~ HH:mm"，尚未保存
+     */
+    public static Exam exam(String room, String subject, LocalDate examDate, LocalTime startTime, LocalTime endTime) {
+        Exam exam = new Exam();
+        exam.setRoom(room);
+        exam.setSubject(subject);
+        exam.setExamType("闭卷");
+        exam.setStartEndTime(timeRange(startTime, endTime));
+        exam.setStartTime(startTime);
+        exam.setEndTime(endTime);
+        exam.setExamDate(examDate);
+        return exam;
+    }
+
+    public static String timeRange(LocalTime startTime, LocalTime endTime) {
+        return TIME_FORMAT.format(startTime) + " ~ " + TIME_FORMAT.format(endTime);
+    }
+
+    /**
+     * 单个座位，没有学生时为可用
+     */
+    public static Seat seat(Exam exam, int seatNumber, String studentName) {
+        Seat seat = new Seat();
+        seat.setSeatNumber(seatNumber);
+        seat.setStudentName(studentName);
+        seat.setAvailable(studentName == null);
+        seat.setExam(exam);
+        return seat;
+    }
+
+    /**
+     * 1~count号座位，学生依次为 prefix1、prefix2……
+     */
+    public static List<Seat> seats(Exam exam, int count, String prefix) {
+        List<Seat> seats = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            seats.add(seat(exam, i, prefix + i));
+        }
+        return seats;
+    }
+
+    /**
+     * 按顺序从1号开始安排的学生
+     */
+    public static List<Seat> seats(Exam exam, String... studentNames) {
+        List<Seat> seats = new ArrayList<>(studentNames.length);
+        for (int i = 0; i < studentNames.length; i++) {
+            seats.add(seat(exam, i + 1, studentNames[i]));
+        }
+        return seats;
+    }
+}
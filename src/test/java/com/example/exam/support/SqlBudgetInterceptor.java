@@ -0,0 +1,121 @@
+package com.example.exam.support;
+
+import com.example.exam.controller.SqlBudget;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * SQL预算拦截器
+ * 对标注了 @SqlBudget 的接口，在请求开始和结束（视图渲染完成后）时读取Hibernate统计信息，
+ * 把本次请求执行的语句数、加载的实体数和初始化的集合数记录到请求属性中，由 withinBudget() 检查。
+ * 统计信息是全局的，测试中的请求需要依次执行
+ */
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+
+    private static final String START = SqlBudgetInterceptor.class.getName() + ".start";
+    private static final String USAGE = SqlBudgetInterceptor.class.getName() + ".usage";
+
+    private final Statistics statistics;
+
+    public SqlBudgetInterceptor(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (budgetOf(handler) != null) {
+            request.setAttribute(START, snapshot());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlBudget budget = budgetOf(handler);
+        long[] start = (long[]) request.getAttribute(START);
+        if (budget == null || start == null) {
+            return;
+        }
+        long[] end = snapshot();
+        HandlerMethod method = (HandlerMethod) handler;
+        request.setAttribute(USAGE, new SqlUsage(method.getBeanType().getSimpleName() + "." + method.getMethod().getName(),
+                budget, end[0] - start[0], end[1] - start[1], end[2] - start[2]));
+    }
+
+    /**
+     * 请求的接口标注了 @SqlBudget 时检查是否超出预算，未标注时不检查
+     */
+    public static ResultMatcher withinBudget() {
+        return result -> {
+            SqlUsage usage = (SqlUsage) result.getRequest().getAttribute(USAGE);
+            if (usage != null && usage.exceedsBudget()) {
+                throw new AssertionError(usage.toString());
+            }
+        };
+    }
+
+    /**
+     * 请求的接口必须标注 @SqlBudget
+     */
+    public static ResultMatcher budgetDeclared() {
+        return result -> {
+            if (result.getRequest().getAttribute(USAGE) == null) {
+                throw new AssertionError(result.getRequest().getRequestURI() + " 没有标注 @SqlBudget");
+            }
+        };
+    }
+
+    private static SqlBudget budgetOf(Object handler) {
+        return handler instanceof HandlerMethod ? ((HandlerMethod) handler).getMethodAnnotation(SqlBudget.class) : null;
+    }
+
+    private long[] snapshot() {
+        return new long[]{
+                statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getCollectionLoadCount()
+        };
+    }
+
+    /**
+     * 一次请求的数据库访问量
+     */
+    public static class SqlUsage {
+        private final String handler;
+        private final SqlBudget budget;
+        private final long statements;
+        private final long entities;
+        private final long collections;
+
+        SqlUsage(String handler, SqlBudget budget, long statements, long entities, long collections) {
+            this.handler = handler;
+            this.budget = budget;
+            this.statements = statements;
+            this.entities = entities;
+            this.collections = collections;
+        }
+
+        boolean exceedsBudget() {
+            return statements > budget.statements()
+                    || (budget.entities() >= 0 && entities > budget.entities())
+                    || (budget.collections() >= 0 && collections > budget.collections());
+        }
+
+        @Override
+        public String toString() {
+            return handler + " 超出SQL预算：语句 " + statements + "/" + budget.statements()
+                    + "，实体 " + entities + "/" + limit(budget.entities())
+                    + "，集合 " + collections + "/" + limit(budget.collections());
+        }
+
+        private static String limit(int value) {
+            return value < 0 ? "不限" : String.valueOf(value);
+        }
+    }
+}
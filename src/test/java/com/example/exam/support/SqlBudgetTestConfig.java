@@ -0,0 +1,32 @@
+package com.example.exam.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 在测试上下文中启用SQL预算检查：注册拦截器，并让MockMvc的每个请求都检查 @SqlBudget
+ * 使用方式：测试类上加 @Import(SqlBudgetTestConfig.class)
+ */
+@TestConfiguration
+public class SqlBudgetTestConfig implements WebMvcConfigurer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SqlBudgetTestConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlBudgetInterceptor(entityManagerFactory));
+    }
+
+    @Bean
+    public MockMvcBuilderCustomizer sqlBudgetMockMvcCustomizer() {
+        return builder -> builder.alwaysExpect(SqlBudgetInterceptor.withinBudget());
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.exam.utils;
+
+import com.example.exam.DTO.SeatDTO;
+import com.example.exam.DTO.SeatRowDTO;
+import com.example.exam.DTO.SheetSeatsDTO;
+import com.example.exam.model.Exam;
+import com.example.exam.support.ExamFixtures;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Excel座位表解析测试，xlsx走SAX流式解析，xls退回到普通模型解析，两条路径结果应一致；
+ * 多工作表导入时按第一行考试信息或工作表名称识别考试时段，考试信息不合法时退回到工作表名称；导出时可用状态为空的座位写为“否”
+ */
+class ExcelUtilsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void streamsSeatRowsFromXlsx() throws IOException {
+        assertParsedSeats(writeSeatSheet(new XSSFWorkbook(), "seats.xlsx"));
+    }
+
+    @Test
+    void fallsBackToWorkbookModelForXls() throws IOException {
+        assertParsedSeats(writeSeatSheet(new HSSFWorkbook(), "seats.xls"));
+    }
+
+    @Test
+    void resolvesSheetSlotsFromXlsx() throws IOException {
+        assertResolvedSlots(writeSlotSheets(new XSSFWorkbook(), "sheets.xlsx"));
+    }
+
+    @Test
+    void resolvesSheetSlotsFromXls() throws IOException {
+        assertResolvedSlots(writeSlotSheets(new HSSFWorkbook(), "sheets.xls"));
+    }
+
+    @Test
+    void exportsMissingAvailabilityAsUnavailable() throws IOException {
+        List<SeatRowDTO> rows = new ArrayList<>();
+        rows.add(new SeatRowDTO(1, "张三", true));
+        rows.add(new SeatRowDTO(2, "李四", false));
+        rows.add(new SeatRowDTO(3, "王五", null));
+        Exam exam = ExamFixtures.exam("N606", "数学", LocalDate.of(2025, 12, 8), LocalTime.of(8, 30), LocalTime.of(10, 30));
+
+        File file = tempDir.resolve("export.xlsx").toFile();
+        try (OutputStream out = new FileOutputStream(file)) {
+            ExcelUtils.writeSeatsToExcel(rows, exam, out);
+        }
+
+        // 与座位实体导出时一样，数据库中可用状态为null的座位导出为“否”
+        try (Workbook workbook = WorkbookFactory.create(file)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals("是", sheet.getRow(2).getCell(2).getStringCellValue());
+            assertEquals("否", sheet.getRow(3).getCell(2).getStringCellValue());
+            assertEquals("否", sheet.getRow(4).getCell(2).getStringCellValue());
+        }
+    }
+
+    private void assertResolvedSlots(File file) throws IOException {
+        List<SheetSeatsDTO> sheets = new ArrayList<>();
+        assertEquals(6, ExcelUtils.streamSheetsFromExcel(file, sheets::add));
+        assertEquals(6, sheets.size());
+
+        // 第一行的考试信息优先于工作表名称
+        SheetSeatsDTO fromHeader = sheets.get(0);
+        assertSlot(fromHeader, "数学", "N601", LocalDate.of(2025, 12, 8), LocalTime.of(8, 30), LocalTime.of(10, 30));
+        assertEquals(2, fromHeader.getSeats().size());
+        assertEquals("张三", fromHeader.getSeats().get(0).getStudentName());
+
+        SheetSeatsDTO fromName = sheets.get(1);
+        assertSlot(fromName, "英语", "N602", LocalDate.of(2025, 12, 8), LocalTime.of(14, 0), LocalTime.of(16, 0));
+        assertEquals(1, fromName.getSeats().size());
+
+        // 工作表名称可以省略科目
+        assertSlot(sheets.get(2), null, "N603", LocalDate.of(2025, 12, 8), LocalTime.of(14, 0), LocalTime.of(16, 0));
+
+        // 日期不合法时视为无法识别，即使已经读出了试室
+        assertFalse(sheets.get(3).hasSlot());
+        assertNull(sheets.get(3).getRoom());
+
+        // 考试信息的日期不合法时退回到工作表名称
+        assertSlot(sheets.get(4), "语文", "N605", LocalDate.of(2025, 12, 8), LocalTime.of(9, 0), LocalTime.of(11, 0));
+
+        // 既没有考试信息也不符合命名规则，座位仍然照常解析
+        assertEquals("座位表", sheets.get(5).getSheetName());
+        assertFalse(sheets.get(5).hasSlot());
+        assertEquals(1, sheets.get(5).getSeats().size());
+    }
+
+    private static void assertSlot(SheetSeatsDTO sheet, String subject, String room, LocalDate examDate,
+                                   LocalTime startTime, LocalTime endTime) {
+        assertTrue(sheet.hasSlot(), sheet.getSheetName());
+        assertEquals(subject, sheet.getSubject());
+        assertEquals(room, sheet.getRoom());
+        assertEquals(examDate, sheet.getExamDate());
+        assertEquals(startTime, sheet.getStartTime());
+        assertEquals(endTime, sheet.getEndTime());
+    }
+
+    private File writeSlotSheets(Workbook workbook, String fileName) throws IOException {
+        try (Workbook wb = workbook) {
+            Sheet header = wb.createSheet("任意名称");
+            row(header, 0, "考试信息：数学 - N601 - 2025-12-08 8:30~10:30", null, null);
+            row(header, 1, "座位号", "学生姓名", "是否可用");
+            row(header, 2, "1", "张三", "否");
+            row(header, 3, "2", "李四", "否");
+
+            Sheet named = wb.createSheet("英语_N602_20251208_1400-1600");
+            row(named, 0, "座位号", "学生姓名", "是否可用");
+            row(named, 1, "1", "王五", "否");
+
+            Sheet withoutSubject = wb.createSheet("N603_20251208_1400-1600");
+            row(withoutSubject, 0, "座位号", "学生姓名", "是否可用");
+
+            Sheet invalidName = wb.createSheet("语文_N604_20251308_0900-1100");
+            row(invalidName, 0, "座位号", "学生姓名", "是否可用");
+            row(invalidName, 1, "1", "赵六", "否");
+
+            Sheet invalidHeader = wb.createSheet("语文_N605_20251208_0900-1100");
+            row(invalidHeader, 0, "考试信息：语文 - N605 - 2025-02-30 9:00~11:00", null, null);
+            row(invalidHeader, 1, "1", "钱七", "否");
+
+            Sheet plain = wb.createSheet("座位表");
+            row(plain, 0, "座位号", "学生姓名", "是否可用");
+            row(plain, 1, "1", "孙八", "否");
+
+            return write(wb, fileName);
+        }
+    }
+
+    private File write(Workbook wb, String fileName) throws IOException {
+        File file = tempDir.resolve(fileName).toFile();
+        try (OutputStream out = new FileOutputStream(file)) {
+            wb.write(out);
+        }
+        return file;
+    }
+
+    private void assertParsedSeats(File file) throws IOException {
+        List<SeatDTO> seats = new ArrayList<>();
+        int count = ExcelUtils.streamSeatsFromExcel(file, seats::add);
+
+        assertEquals(8, count);
+        assertEquals(8, seats.size());
+        // 标题行即使看起来像座位数据也被跳过；空行和座位号无法解析的行不计入
+        assertSeat(seats.get(0), 1, "张三", true);
+        assertSeat(seats.get(1), 2, "李四", true);
+        assertSeat(seats.get(2), 3, "王五", true);
+        assertSeat(seats.get(3), 4, "赵六", false);
+        assertSeat(seats.get(4), 5, null, true);
+        // 数值单元格格式化为小数时按整数读取
+        assertSeat(seats.get(5), 6, "钱七", true);
+        assertSeat(seats.get(6), 7, "孙八", true);
+        // 可用状态列为数值时不表达可用状态，保持默认可用
+        assertSeat(seats.get(7), 8, "周九", true);
+    }
+
+    private static void assertSeat(SeatDTO seat, int seatNumber, String studentName, boolean available) {
+        assertEquals(seatNumber, seat.getSeatNumber());
+        assertEquals(studentName, seat.getStudentName());
+        assertEquals(available, seat.isAvailable(), "座位 " + seatNumber + " 的可用状态");
+    }
+
+    private File writeSeatSheet(Workbook workbook, String fileName) throws IOException {
+        try (Workbook wb = workbook) {
+            Sheet sheet = wb.createSheet("座位表");
+            CellStyle decimal = wb.createCellStyle();
+            decimal.setDataFormat(wb.createDataFormat().getFormat("0.00"));
+
+            row(sheet, 0, "99", "标题", "否");
+            row(sheet, 1, "1", "张三", "是");
+            row(sheet, 2, "2", "李四", "可用");
+            row(sheet, 3, "3", "王五", "TRUE");
+            row(sheet, 4, "4", "赵六", "否");
+            // 全部单元格为空字符串的行和完全缺失的第6行都视为空行
+            row(sheet, 5, "", "", "");
+            row(sheet, 7, "5", null, null);
+            Row numeric = sheet.createRow(8);
+            numeric.createCell(0).setCellValue(6);
+            numeric.getCell(0).setCellStyle(decimal);
+            numeric.createCell(1).setCellValue("钱七");
+            numeric.createCell(2).setCellValue(true);
+            Row decimalRow = sheet.createRow(9);
+            decimalRow.createCell(0).setCellValue(7.0);
+            decimalRow.createCell(1).setCellValue("孙八");
+            row(sheet, 10, "第十一排", "不是座位", "是");
+            Row numericAvailable = sheet.createRow(11);
+            numericAvailable.createCell(0).setCellValue("8");
+            numericAvailable.createCell(1).setCellValue("周九");
+            numericAvailable.createCell(2).setCellValue(0);
+
+            return write(wb, fileName);
+        }
+    }
+
+    private static void row(Sheet sheet, int rowNum, String seatNumber, String studentName, String available) {
+        Row row = sheet.createRow(rowNum);
+        String[] values = {seatNumber, studentName, available};
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                row.createCell(i).setCellValue(values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.exam.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 自动排座求解器测试
+ */
+class SeatAllocatorTest {
+
+    @Test
+    void allocatesFiveHundredSeatHallWithinConstraints() {
+        int rows = 20;
+        int cols = 25;
+        int students = 480;
+        int[] studentClass = new int[students];
+        int[] studentSubject = new int[students];
+        for (int i = 0; i < students; i++) {
+            studentClass[i] = i % 12;
+            studentSubject[i] = studentClass[i] % 2;
+        }
+
+        long start = System.nanoTime();
+        int[] seatStudent = SeatAllocator.allocate(rows, cols, null, 0, studentClass, studentSubject, 2, true);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(students, SeatAllocator.countAssigned(seatStudent));
+        assertTrue(elapsedMillis < 1000, "500座试室排座耗时 " + elapsedMillis + "ms");
+
+        boolean[] placed = new boolean[students];
+        for (int seat = 0; seat < seatStudent.length; seat++) {
+            int student = seatStudent[seat];
+            if (student < 0) {
+                continue;
+            }
+            assertTrue(!placed[student], "学生被重复分配");
+            placed[student] = true;
+            int row = seat / cols;
+            int col = seat % cols;
+            for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+                    int other = seatStudent[r * cols + c];
+                    if (other >= 0 && other != student) {
+                        assertNotEquals(studentClass[student], studentClass[other], "同班学生相邻");
+                        if (r == row || c == col) {
+                            assertNotEquals(studentSubject[student], studentSubject[other], "相邻座位科目相同");
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void respectsBlockedSeatsAndSeatCap() {
+        boolean[] blocked = new boolean[12];
+        blocked[0] = true;
+        int[] studentClass = {0, 1, 2, 3, 4};
+        int[] studentSubject = {0, 0, 0, 0, 0};
+
+        int[] seatStudent = SeatAllocator.allocate(3, 4, blocked, 3, studentClass, studentSubject, 1, false);
+
+        assertEquals(SeatAllocator.BLOCKED, seatStudent[0]);
+        assertEquals(3, SeatAllocator.countAssigned(seatStudent));
+    }
+
+    @Test
+    void handlesLargeSparseClassAndSubjectIds() {
+        // 编号的乘积超出int范围，分组和禁止标记只按实际出现的编号分配
+        int[] studentClass = {2_000_000_000, 7, 2_000_000_000, 7};
+        int[] studentSubject = {1_500_000_000, 3, 3, 1_500_000_000};
+
+        int[] seatStudent = SeatAllocator.allocate(2, 2, null, 0, studentClass, studentSubject, 2, true);
+
+        assertEquals(2, SeatAllocator.countAssigned(seatStudent));
+        assertEquals(0, seatStudent[0]);
+        assertEquals(1, seatStudent[1]);
+    }
+}